@@ -0,0 +1,187 @@
+public class AdaptiveHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+    private static final int SAMPLE_MASK = 31;              // one probe-length sample every 32 operations
+    private static final int WINDOW = 64;                   // samples per switch decision (every 2048 operations)
+    private static final int MAX_BACKOFF = 64;              // windows skipped after a switch, at most
+    private static final int MIN_DECISION_SIZE = 256;       // smaller tables only report, their samples are too noisy
+    private static final double DEFAULT_ESCALATE_ABOVE = 3.0;
+    private static final double DEFAULT_RELAX_BELOW = 1.25;
+
+    /** Backend layouts, from cheapest on well-spread hashes to most robust under clustering. */
+    public enum Layout { OPEN, ROBIN_HOOD, CHAINED }
+
+    /*
+     * Layout-switching wrapper. Every 32nd operation also measures the probe length of its key (slots or nodes
+     * inspected by a lookup) through the backend's package-private probeLength hook, before a get/remove and
+     * after a put. Each sample is paired with the probe count uniform hashing predicts for the layout at the
+     * current load, so the window's clustering ratio (observed / expected) does not drift with the load factor.
+     * Above escalateAbove the table is rebuilt in the next, more robust layout (OPEN -> ROBIN_HOOD -> CHAINED),
+     * below relaxBelow in the previous one. Each switch skips the following windows, and the skip doubles
+     * whenever an escalation undoes a relaxation, so an oscillating input cannot rebuild every window.
+     */
+    private DoubleIntTable table;
+    private Layout layout;
+    private final double loadFactor;
+    private double escalateAbove = DEFAULT_ESCALATE_ABOVE;
+    private double relaxBelow = DEFAULT_RELAX_BELOW;
+
+    private int ops;
+    private long windowProbes;
+    private double windowExpected;
+    private int windowSamples;
+    private int skipWindows;
+    private int backoff = 1;
+    private boolean lastSwitchRelaxed;
+    private double lastMeanProbe;
+    private double lastClustering;
+
+    private int escalations;
+    private int relaxations;
+    private long switchNanos;
+    private long migratedEntries;
+
+    public AdaptiveHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public AdaptiveHashTable(int initialCapacity, double loadFactor) {
+        this.loadFactor = loadFactor <= 0 || loadFactor >= 1 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.layout = Layout.OPEN;
+        this.table = newBackend(Layout.OPEN, initialCapacity);
+    }
+
+    /** Clustering ratio (observed / expected probes) above which the table escalates and below which it relaxes. */
+    public void setThresholds(double escalateAbove, double relaxBelow) {
+        if (!(relaxBelow < escalateAbove)) throw new IllegalArgumentException("relaxBelow must be < escalateAbove");
+        this.escalateAbove = escalateAbove;
+        this.relaxBelow = relaxBelow;
+    }
+
+    public Layout layout() { return layout; }
+    public int escalations() { return escalations; }
+    public int relaxations() { return relaxations; }
+    /** Total time spent rebuilding into another layout. */
+    public long switchNanos() { return switchNanos; }
+    /** Entries copied by all switches so far. */
+    public long migratedEntries() { return migratedEntries; }
+    /** Mean sampled probe length of the last completed window. */
+    public double lastMeanProbe() { return lastMeanProbe; }
+    /** Observed / expected probes of the last completed window (about 1 for well-spread hashes). */
+    public double lastClustering() { return lastClustering; }
+
+    public int size() { return table.size(); }
+    public int capacity() { return table.capacity(); }
+
+    public void put(double key, int value) {
+        table.put(key, value);
+        if ((++ops & SAMPLE_MASK) == 0) sample(key, true);
+    }
+
+    public Integer get(double key) {
+        if ((++ops & SAMPLE_MASK) == 0) sample(key, false);
+        return table.get(key);
+    }
+
+    public int getInt(double key, int missingValue) {
+        if ((++ops & SAMPLE_MASK) == 0) sample(key, false);
+        return table.getInt(key, missingValue);
+    }
+
+    public boolean containsKey(double key) {
+        if ((++ops & SAMPLE_MASK) == 0) sample(key, false);
+        return table.containsKey(key);
+    }
+
+    public boolean remove(double key) {
+        if ((++ops & SAMPLE_MASK) == 0) sample(key, false);
+        return table.remove(key);
+    }
+
+    private void sample(double key, boolean justInserted) {
+        windowProbes += probeLength(key);
+        windowExpected += expectedProbes(justInserted);
+        if (++windowSamples < WINDOW) return;
+
+        lastMeanProbe = windowProbes / (double) WINDOW;
+        lastClustering = windowProbes / windowExpected;
+        windowProbes = 0;
+        windowExpected = 0;
+        windowSamples = 0;
+        double ratio = lastClustering;
+        if (skipWindows > 0) {
+            skipWindows--;
+        } else if (table.size() < MIN_DECISION_SIZE) {
+            return;
+        } else if (ratio > escalateAbove && layout != Layout.CHAINED) {
+            if (lastSwitchRelaxed) backoff = Math.min(MAX_BACKOFF, backoff << 1);
+            escalations++;
+            switchTo(Layout.values()[layout.ordinal() + 1], false);
+        } else if (ratio < relaxBelow && layout != Layout.OPEN) {
+            relaxations++;
+            switchTo(Layout.values()[layout.ordinal() - 1], true);
+        }
+    }
+
+    private void switchTo(Layout target, boolean relaxed) {
+        long t0 = System.nanoTime();
+        int n = table.size();
+        DoubleIntTable next = newBackend(target, (int) Math.min(1 << 30, n / loadFactor * 2));
+        forEachEntry(next::put);
+        table = next;
+        layout = target;
+        migratedEntries += n;
+        switchNanos += System.nanoTime() - t0;
+        lastSwitchRelaxed = relaxed;
+        skipWindows = backoff;
+    }
+
+    private DoubleIntTable newBackend(Layout l, int initialCapacity) {
+        switch (l) {
+            case OPEN:       return new OpenAddressingHashTable(initialCapacity, loadFactor);
+            case ROBIN_HOOD: return new RobinHoodHashTable(initialCapacity, loadFactor);
+            default:         return new MyHashTable(initialCapacity, loadFactor);
+        }
+    }
+
+    /**
+     * Probes uniform hashing predicts at the current load a = size / capacity (Knuth's linear probing results).
+     * A key just put by linear probing sits at the end of its run and costs an unsuccessful search,
+     * 1/2 (1 + 1/(1-a)^2); a Robin Hood insertion averages like any hit, 1/2 (1 + 1/(1-a)). A chained hit costs
+     * 1 + a/2 and a just-put chained key is the bucket head.
+     */
+    private double expectedProbes(boolean justInserted) {
+        double a = table.size() / (double) table.capacity();
+        switch (layout) {
+            case OPEN:
+            case ROBIN_HOOD: {
+                double free = 1 - Math.min(a, 0.95);
+                return justInserted && layout == Layout.OPEN ? 0.5 * (1 + 1 / (free * free)) : 0.5 * (1 + 1 / free);
+            }
+            default:
+                return justInserted ? 1 : 1 + a / 2;
+        }
+    }
+
+    private int probeLength(double key) {
+        switch (layout) {
+            case OPEN:       return ((OpenAddressingHashTable) table).probeLength(key);
+            case ROBIN_HOOD: return ((RobinHoodHashTable) table).probeLength(key);
+            default:         return ((MyHashTable) table).probeLength(key);
+        }
+    }
+
+    private void forEachEntry(DoubleIntConsumer action) {
+        switch (layout) {
+            case OPEN:       ((OpenAddressingHashTable) table).forEachEntry(action); break;
+            case ROBIN_HOOD: ((RobinHoodHashTable) table).forEachEntry(action); break;
+            default:         ((MyHashTable) table).forEach(action);
+        }
+    }
+
+    /** Backend stats plus the current layout and the switch counters. */
+    public String stats() {
+        return table.stats() + String.format(", layout=%s, escalations=%d, relaxations=%d, switchMs=%.3f, migratedEntries=%d, meanProbe=%.3f, clustering=%.3f",
+                layout, escalations, relaxations, switchNanos / 1e6, migratedEntries, lastMeanProbe, lastClustering);
+    }
+}
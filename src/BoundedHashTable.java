@@ -0,0 +1,122 @@
+/** A MyHashTable-backed cache that holds at most maxEntries keys, evicting by a pluggable EvictionPolicy. */
+public class BoundedHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int NODE_POOL_SIZE = 64;
+
+    /*
+     * Entries live in maxEntries slots (raw key bits and value in parallel arrays); a MyHashTable maps each
+     * key to its slot. A new key asks the policy for a slot, and the key held there is removed from the
+     * index first. The index is sized up front so it never resizes, and it recycles its chain nodes, so
+     * once the cache is full an evicting put reuses the evicted key's node: no operation allocates.
+     */
+    private final MyHashTable index;
+    private final long[] slotKeys;
+    private final int[] slotValues;
+    private final boolean[] occupied;
+    private final EvictionPolicy policy;
+    private long hits, misses, evictions, rejections;
+
+    public BoundedHashTable(int maxEntries, EvictionPolicy policy) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        this.index = new MyHashTable((int) Math.min(1 << 30, (long) Math.ceil(maxEntries / DEFAULT_LOAD_FACTOR) + 1),
+                DEFAULT_LOAD_FACTOR);
+        this.index.setNodePoolSize(NODE_POOL_SIZE);
+        this.slotKeys = new long[maxEntries];
+        this.slotValues = new int[maxEntries];
+        this.occupied = new boolean[maxEntries];
+        this.policy = policy;
+    }
+
+    /** Bounded table with CLOCK eviction. */
+    public static BoundedHashTable clock(int maxEntries) {
+        return new BoundedHashTable(maxEntries, new EvictionPolicy.Clock(maxEntries));
+    }
+
+    /** Bounded table with a 1% CLOCK window and TinyLFU admission into the main region. */
+    public static BoundedHashTable tinyLfu(int maxEntries) {
+        return new BoundedHashTable(maxEntries, new EvictionPolicy.WindowTinyLfu(maxEntries));
+    }
+
+    public int size() { return index.size(); }
+    /** The entry bound, not the index's bucket count. */
+    public int capacity() { return slotKeys.length; }
+
+    public int maxEntries() { return slotKeys.length; }
+    public EvictionPolicy getPolicy() { return policy; }
+    public long getEvictions() { return evictions; }
+
+    /** Share of get/getInt calls that found their key. */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : hits / (double) lookups;
+    }
+
+    /** Inserts or overwrites; a new key may evict another one or, under an admission policy, be dropped. */
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        policy.recordAccess(h);
+        int slot = index.getInt(key, -1);
+        if (slot >= 0) {
+            slotValues[slot] = value;
+            policy.recordHit(slot);
+            return;
+        }
+        slot = policy.slotFor(h);
+        if (slot < 0) {
+            rejections++;
+            return;
+        }
+        if (occupied[slot]) {
+            index.remove(Double.longBitsToDouble(slotKeys[slot]));
+            evictions++;
+        }
+        slotKeys[slot] = bits;
+        slotValues[slot] = value;
+        occupied[slot] = true;
+        index.put(key, slot);
+    }
+
+    public Integer get(double key) {
+        int slot = lookup(key);
+        return slot < 0 ? null : slotValues[slot];
+    }
+
+    public int getInt(double key, int missingValue) {
+        int slot = lookup(key);
+        return slot < 0 ? missingValue : slotValues[slot];
+    }
+
+    /** Slot of the key or -1, counted as a cache hit or miss. */
+    private int lookup(double key) {
+        policy.recordAccess(MyHashTable.mix32(Double.doubleToRawLongBits(key)));
+        int slot = index.getInt(key, -1);
+        if (slot < 0) {
+            misses++;
+            return -1;
+        }
+        hits++;
+        policy.recordHit(slot);
+        return slot;
+    }
+
+    /** Presence check only: not counted and does not touch the policy. */
+    public boolean containsKey(double key) {
+        return index.containsKey(key);
+    }
+
+    public boolean remove(double key) {
+        int slot = index.getInt(key, -1);
+        if (slot < 0) return false;
+        index.remove(key);
+        occupied[slot] = false;
+        policy.release(slot);
+        return true;
+    }
+
+    /** Index stats plus the bound, the policy and the cache counters. */
+    public String stats() {
+        return index.stats() + String.format(", maxEntries=%d, policy=%s, hitRatio=%.4f, evictions=%d, rejections=%d",
+                slotKeys.length, policy, getHitRatio(), evictions, rejections);
+    }
+}
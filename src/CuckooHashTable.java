@@ -0,0 +1,270 @@
+public class CuckooHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.90;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // slots, power of two
+    private static final int BUCKET_SIZE = 4;               // 4-way buckets
+    private static final int MAX_KICKS = 256;               // bounded kick-out walk
+    private static final int STASH_SIZE = 4;
+
+    // Two independent hash functions: the SplitMix64 mixer applied to the key bits xor'ed with distinct seeds.
+    private static final long SEED1 = 0x2545F4914F6CDD1DL;
+    private static final long SEED2 = 0x61C8864680B583EBL;
+
+    /*
+     * Every key lives in one of the 4 slots of bucket h1, one of the 4 slots of bucket h2, or the small
+     * stash, so get() inspects at most two buckets plus the stash regardless of the key distribution.
+     * Raw bits 0L (+0.0) marks a free slot; the +0.0 key itself lives in a side slot.
+     */
+    private long[] keys;
+    private int[] values;
+    private final long[] stashKeys = new long[STASH_SIZE];
+    private final int[] stashValues = new int[STASH_SIZE];
+    private int stashSize;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private int size;
+    private int bucketMask;
+    private final double loadFactor;
+    private int threshold;
+    private int rng = 0x9E3779B9; // xorshift state for victim choice
+
+    private long homelessBits; // key displaced by a failed kick-out walk, reinserted by grow()
+    private int homelessValue;
+
+    private long kickouts;
+    private int insertFailures;
+
+    public CuckooHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public CuckooHashTable(int initialCapacity, double loadFactor) {
+        if (initialCapacity < 2 * BUCKET_SIZE) initialCapacity = 2 * BUCKET_SIZE;
+        int cap = 1;
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.loadFactor = loadFactor <= 0 || loadFactor >= 1 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        allocate(cap);
+        this.size = 0;
+    }
+
+    private void allocate(int cap) {
+        this.keys = new long[cap];
+        this.values = new int[cap];
+        this.bucketMask = cap / BUCKET_SIZE - 1;
+        this.threshold = (int) (cap * loadFactor);
+    }
+
+    public int size() { return size; }
+    public int capacity() { return keys.length; }
+
+    /** Total displacements performed by the kick-out walk. */
+    public long kickouts() { return kickouts; }
+
+    /** Kick-out walks that hit MAX_KICKS and fell back to the stash or a resize. */
+    public int insertFailures() { return insertFailures; }
+
+    private int bucket1(long bits) { return MyHashTable.mix32(bits ^ SEED1) & bucketMask; }
+    private int bucket2(long bits) { return MyHashTable.mix32(bits ^ SEED2) & bucketMask; }
+
+    /** Slot of bits within bucket b, or -1. */
+    private int slotIn(int b, long bits) {
+        int s = b * BUCKET_SIZE;
+        for (int i = s; i < s + BUCKET_SIZE; i++) {
+            if (keys[i] == bits) return i;
+        }
+        return -1;
+    }
+
+    private int stashIndex(long bits) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stashKeys[i] == bits) return i;
+        }
+        return -1;
+    }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return;
+        }
+        int s = slotIn(bucket1(bits), bits);
+        if (s < 0) s = slotIn(bucket2(bits), bits);
+        if (s >= 0) {
+            values[s] = value;
+            return;
+        }
+        int st = stashIndex(bits);
+        if (st >= 0) {
+            stashValues[st] = value;
+            return;
+        }
+
+        if (!insert(bits, value)) grow(homelessBits, homelessValue);
+        if (++size > threshold) grow(0L, 0);
+    }
+
+    /**
+     * Places an absent key: free slot in either bucket, else a bounded random-walk of kick-outs, else the stash.
+     * Returns false when all of these fail; the key left without a slot is then in homelessBits/homelessValue.
+     */
+    private boolean insert(long bits, int value) {
+        int b1 = bucket1(bits);
+        int s = slotIn(b1, 0L);
+        if (s < 0) s = slotIn(bucket2(bits), 0L);
+        if (s >= 0) {
+            keys[s] = bits;
+            values[s] = value;
+            return true;
+        }
+
+        long curBits = bits;
+        int curValue = value;
+        int b = b1;
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            rng ^= rng << 13;
+            rng ^= rng >>> 17;
+            rng ^= rng << 5;
+            int victim = b * BUCKET_SIZE + (rng & (BUCKET_SIZE - 1));
+            long vb = keys[victim];
+            int vv = values[victim];
+            keys[victim] = curBits;
+            values[victim] = curValue;
+            curBits = vb;
+            curValue = vv;
+            kickouts++;
+
+            int alt = bucket1(curBits);
+            if (alt == b) alt = bucket2(curBits);
+            int free = slotIn(alt, 0L);
+            if (free >= 0) {
+                keys[free] = curBits;
+                values[free] = curValue;
+                return true;
+            }
+            b = alt;
+        }
+
+        insertFailures++;
+        if (stashSize < STASH_SIZE) {
+            stashKeys[stashSize] = curBits;
+            stashValues[stashSize++] = curValue;
+            return true;
+        }
+        homelessBits = curBits;
+        homelessValue = curValue;
+        return false;
+    }
+
+    /**
+     * Doubles capacity and rebuilds from the current slots, the stash, and the homeless key of a failed insert
+     * (extraBits, 0L when there is none). Doubles again if the rebuild itself cannot place everything.
+     */
+    private void grow(long extraBits, int extraValue) {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        long[] oldStashKeys = stashKeys.clone();
+        int[] oldStashValues = stashValues.clone();
+        int oldStashSize = stashSize;
+
+        int cap = oldKeys.length;
+        rebuild:
+        for (;;) {
+            cap <<= 1;
+            allocate(cap);
+            stashSize = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0L && !insert(oldKeys[i], oldValues[i])) continue rebuild;
+            }
+            for (int i = 0; i < oldStashSize; i++) {
+                if (!insert(oldStashKeys[i], oldStashValues[i])) continue rebuild;
+            }
+            if (extraBits != 0L && !insert(extraBits, extraValue)) continue rebuild;
+            return;
+        }
+    }
+
+    public Integer get(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : null;
+        int s = slotIn(bucket1(bits), bits);
+        if (s < 0) s = slotIn(bucket2(bits), bits);
+        if (s >= 0) return values[s];
+        if (stashSize > 0) {
+            int st = stashIndex(bits);
+            if (st >= 0) return stashValues[st];
+        }
+        return null;
+    }
+
+    public int getInt(double key, int missingValue) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : missingValue;
+        int s = slotIn(bucket1(bits), bits);
+        if (s < 0) s = slotIn(bucket2(bits), bits);
+        if (s >= 0) return values[s];
+        if (stashSize > 0) {
+            int st = stashIndex(bits);
+            if (st >= 0) return stashValues[st];
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey;
+        return slotIn(bucket1(bits), bits) >= 0 || slotIn(bucket2(bits), bits) >= 0
+                || (stashSize > 0 && stashIndex(bits) >= 0);
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int s = slotIn(bucket1(bits), bits);
+        if (s < 0) s = slotIn(bucket2(bits), bits);
+        if (s >= 0) {
+            keys[s] = 0L;
+            size--;
+            return true;
+        }
+        int st = stashIndex(bits);
+        if (st < 0) return false;
+        stashSize--;
+        stashKeys[st] = stashKeys[stashSize];
+        stashValues[st] = stashValues[stashSize];
+        size--;
+        return true;
+    }
+
+    /** Chain length here is buckets probed: 1 for the first bucket, 2 for the second, 3 for the stash. */
+    public String stats() {
+        int maxProbe = 0, entries = 0;
+        long totalProbe = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long k = keys[i];
+            if (k == 0L) continue;
+            int probe = i / BUCKET_SIZE == bucket1(k) ? 1 : 2;
+            entries++;
+            totalProbe += probe;
+            if (probe > maxProbe) maxProbe = probe;
+        }
+        if (stashSize > 0) {
+            entries += stashSize;
+            totalProbe += 3L * stashSize;
+            maxProbe = 3;
+        }
+        double lf = size / (double) keys.length;
+        double mean = entries > 0 ? totalProbe / (double) entries : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f, kickouts=%d, insertFailures=%d, stashSize=%d",
+                keys.length, size, lf, maxProbe, mean, kickouts, insertFailures, stashSize);
+    }
+}
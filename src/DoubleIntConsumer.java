@@ -0,0 +1,4 @@
+/** Receives one (key, value) entry of a DoubleIntTable. */
+public interface DoubleIntConsumer {
+    void accept(double key, int value);
+}
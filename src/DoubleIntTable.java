@@ -0,0 +1,36 @@
+/** Common put/get/remove API shared by the double -> int tables so the benchmark can swap them. */
+public interface DoubleIntTable {
+    void put(double key, int value);
+    Integer get(double key);
+
+    /** Allocation-free lookup: the value, or missingValue when the key is absent. */
+    int getInt(double key, int missingValue);
+
+    boolean containsKey(double key);
+    boolean remove(double key);
+
+    /** Puts keys[i] -> values[i] for every i; tables with a pipelined batch path override this loop. */
+    default void putAll(double[] keys, int[] values) {
+        if (values.length < keys.length) throw new IllegalArgumentException("values shorter than keys");
+        for (int i = 0; i < keys.length; i++) put(keys[i], values[i]);
+    }
+
+    /** out[i] = getInt(keys[i], missingValue) for every i. */
+    default void getAll(double[] keys, int[] out, int missingValue) {
+        if (out.length < keys.length) throw new IllegalArgumentException("out shorter than keys");
+        for (int i = 0; i < keys.length; i++) out[i] = getInt(keys[i], missingValue);
+    }
+
+    /** Removes every key; returns how many were present. */
+    default int removeAll(double[] keys) {
+        int removed = 0;
+        for (double k : keys) if (remove(k)) removed++;
+        return removed;
+    }
+
+    int size();
+    int capacity();
+
+    /** "M=.., size=.., loadFactor=.., maxChainLength=.., meanChainLength=.." (parsed by the benchmark). */
+    String stats();
+}
@@ -0,0 +1,184 @@
+/** Picks the slot of BoundedHashTable that a new key goes into; slots are the positions 0..maxEntries-1. */
+public interface EvictionPolicy {
+    /** Every get or put of a key with this hash, hit or miss (frequency sketches count both). */
+    void recordAccess(int hash);
+
+    /** The entry in slot was read or overwritten. */
+    void recordHit(int slot);
+
+    /** Slot for a new key with this hash; the table evicts the entry held there, if any. -1 rejects the key. */
+    int slotFor(int hash);
+
+    /** The entry in slot was removed; the slot may be handed out again. */
+    void release(int slot);
+
+    /**
+     * CLOCK (second chance): a hit sets the slot's reference bit; the hand clears set bits as it sweeps and
+     * evicts the first slot whose bit is clear, so each eviction is amortized O(1). Released slots are reused
+     * first, before any eviction.
+     */
+    final class Clock implements EvictionPolicy {
+        private final boolean[] referenced;
+        private final int[] freeSlots;
+        private int freeCount;
+        private int fresh;   // slots never handed out yet: [fresh, n)
+        private int hand;
+
+        public Clock(int maxEntries) {
+            this.referenced = new boolean[maxEntries];
+            this.freeSlots = new int[maxEntries];
+        }
+
+        public void recordAccess(int hash) { }
+
+        public void recordHit(int slot) { referenced[slot] = true; }
+
+        public int slotFor(int hash) {
+            if (freeCount > 0) return freeSlots[--freeCount];
+            if (fresh < referenced.length) return fresh++;
+            for (;;) {
+                int s = hand;
+                hand = s + 1 == referenced.length ? 0 : s + 1;
+                if (!referenced[s]) return s;
+                referenced[s] = false;
+            }
+        }
+
+        public void release(int slot) {
+            referenced[slot] = false;
+            freeSlots[freeCount++] = slot;
+        }
+
+        @Override public String toString() { return "clock"; }
+    }
+
+    /**
+     * W-TinyLFU: new keys always enter a small window (1% of the slots); the window's CLOCK victim then
+     * competes with the main region's CLOCK victim, and the one a count-min sketch has seen less often is
+     * evicted. One-hit wonders therefore never displace frequently used keys. A removed slot stays a hole
+     * in its region until that region's hand reaches it, and is then reused without an eviction.
+     */
+    final class WindowTinyLfu implements EvictionPolicy {
+        private final int[] window, main;   // slot numbers in CLOCK order per region
+        private int windowCount, mainCount; // positions filled so far
+        private int windowHand, mainHand;
+        private final boolean[] referenced, free;
+        private final int[] slotHash;
+        private int fresh;
+        private final FrequencySketch sketch;
+
+        public WindowTinyLfu(int maxEntries) {
+            int windowSize = Math.max(1, maxEntries / 100);
+            this.window = new int[windowSize];
+            this.main = new int[maxEntries - windowSize];
+            this.referenced = new boolean[maxEntries];
+            this.free = new boolean[maxEntries];
+            this.slotHash = new int[maxEntries];
+            this.sketch = new FrequencySketch(maxEntries);
+        }
+
+        public void recordAccess(int hash) { sketch.increment(hash); }
+
+        public void recordHit(int slot) { referenced[slot] = true; }
+
+        public int slotFor(int hash) {
+            int s;
+            if (windowCount < window.length) {
+                s = fresh++;
+                window[windowCount++] = s;
+            } else {
+                int wPos = victim(window, windowHand);
+                int candidate = window[wPos];
+                windowHand = wPos + 1 == window.length ? 0 : wPos + 1;
+                if (free[candidate] || main.length == 0) {
+                    s = candidate;                    // hole, or no main region: the window entry goes
+                } else if (mainCount < main.length) {
+                    main[mainCount++] = candidate;    // main still filling: promote without a contest
+                    s = fresh++;
+                    window[wPos] = s;
+                } else {
+                    int mPos = victim(main, mainHand);
+                    mainHand = mPos + 1 == main.length ? 0 : mPos + 1;
+                    int victim = main[mPos];
+                    if (free[victim] || sketch.frequency(slotHash[candidate]) > sketch.frequency(slotHash[victim])) {
+                        main[mPos] = candidate;       // candidate admitted, main victim evicted
+                        s = victim;
+                        window[wPos] = s;
+                    } else {
+                        s = candidate;                // candidate rejected
+                    }
+                }
+            }
+            free[s] = false;
+            referenced[s] = false;
+            slotHash[s] = hash;
+            return s;
+        }
+
+        /** Position of the first free or unreferenced slot from hand on, clearing reference bits on the way. */
+        private int victim(int[] ring, int hand) {
+            for (;;) {
+                int s = ring[hand];
+                if (free[s] || !referenced[s]) return hand;
+                referenced[s] = false;
+                hand = hand + 1 == ring.length ? 0 : hand + 1;
+            }
+        }
+
+        public void release(int slot) {
+            free[slot] = true;
+            referenced[slot] = false;
+        }
+
+        @Override public String toString() { return "w-tinylfu"; }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, four rows of a power-of-two width (at least the entry count),
+     * 16 counters per long. After 10 * width increments every counter is halved, so old popularity fades.
+     */
+    final class FrequencySketch {
+        private final long[] table;   // row r occupies [r * rowLongs, (r + 1) * rowLongs)
+        private final int rowLongs;
+        private final int indexShift; // 32 - log2(width)
+        private final int sampleSize;
+        private int additions;
+
+        public FrequencySketch(int maxEntries) {
+            int width = 16;
+            while (width < maxEntries) width <<= 1;
+            this.indexShift = 32 - Integer.numberOfTrailingZeros(width);
+            this.rowLongs = width >>> 4;
+            this.table = new long[4 * rowLongs];
+            this.sampleSize = 10 * width;
+        }
+
+        public void increment(int hash) {
+            int h = spread(hash), step = (h * 0x85EBCA6B) | 1;
+            for (int r = 0; r < 4; r++, h += step) {
+                int c = h >>> indexShift;
+                int i = r * rowLongs + (c >>> 4), shift = (c & 15) << 2;
+                if (((table[i] >>> shift) & 15) != 15) table[i] += 1L << shift;
+            }
+            if (++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+                additions >>>= 1;
+            }
+        }
+
+        /** Estimated accesses of the hash (never below the true count, up to 15). */
+        public int frequency(int hash) {
+            int h = spread(hash), step = (h * 0x85EBCA6B) | 1, min = 15;
+            for (int r = 0; r < 4; r++, h += step) {
+                int c = h >>> indexShift;
+                min = Math.min(min, (int) (table[r * rowLongs + (c >>> 4)] >>> ((c & 15) << 2)) & 15);
+            }
+            return min;
+        }
+
+        /** Row r takes the top bits of h + r * step (double hashing), so one rehash serves all four rows. */
+        private static int spread(int hash) {
+            return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+        }
+    }
+}
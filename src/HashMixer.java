@@ -0,0 +1,56 @@
+/** Maps the raw IEEE-754 bits of a key to the 32-bit hash whose low bits pick the bucket. */
+public interface HashMixer {
+    int hash(long bits);
+
+    /** out[i] = hash(bits[i] ^ seed) for i < len; SPLITMIX64 uses MyHashTable's unrolled bulk mix32. */
+    default void hashAll(long[] bits, long seed, int[] out, int len) {
+        for (int i = 0; i < len; i++) out[i] = hash(bits[i] ^ seed);
+    }
+
+    /** Built-in mixers, from the full SplitMix64 finalizer down to no mixing at all. */
+    enum Builtin implements HashMixer {
+        /** SplitMix64 finalizer folded to 32 bits (MyHashTable.mix32, the default). */
+        SPLITMIX64 {
+            public int hash(long bits) { return MyHashTable.mix32(bits); }
+            @Override public void hashAll(long[] bits, long seed, int[] out, int len) { MyHashTable.mix32(bits, seed, out, len); }
+        },
+        /** MurmurHash3 fmix64: two multiplies, three xor-shifts. */
+        MURMUR3 {
+            public int hash(long k) {
+                k ^= k >>> 33;
+                k *= 0xFF51AFD7ED558CCDL;
+                k ^= k >>> 33;
+                k *= 0xC4CEB9FE1A85EC53L;
+                k ^= k >>> 33;
+                return (int) (k ^ (k >>> 32));
+            }
+        },
+        /** One xor-shift and one multiply; the fold brings the well-mixed high half down to the index bits. */
+        XORSHIFT_MULTIPLY {
+            public int hash(long z) {
+                z = (z ^ (z >>> 29)) * 0xBF58476D1CE4E5B9L;
+                return (int) (z ^ (z >>> 32));
+            }
+        },
+        /** wyhash-style mum: 64x64->128-bit multiply with a secret, high and low halves xored. */
+        MUM {
+            public int hash(long bits) {
+                long a = bits ^ 0xA0761D6478BD642FL, b = 0xE7037ED1A0B428DBL;
+                long z = a * b ^ unsignedMultiplyHigh(a, b);
+                return (int) (z ^ (z >>> 32));
+            }
+        },
+        /** No mixing: the two halves of the bits xored, like Double.hashCode. */
+        IDENTITY {
+            public int hash(long bits) { return (int) (bits ^ (bits >>> 32)); }
+        };
+
+        /** High 64 bits of the unsigned 128-bit product (Math.multiplyHigh is Java 9+). */
+        static long unsignedMultiplyHigh(long a, long b) {
+            long aLo = a & 0xFFFFFFFFL, aHi = a >>> 32, bLo = b & 0xFFFFFFFFL, bHi = b >>> 32;
+            long lolo = aLo * bLo, hilo = aHi * bLo, lohi = aLo * bHi, hihi = aHi * bHi;
+            long mid = (lolo >>> 32) + (hilo & 0xFFFFFFFFL) + (lohi & 0xFFFFFFFFL);
+            return hihi + (hilo >>> 32) + (lohi >>> 32) + (mid >>> 32);
+        }
+    }
+}
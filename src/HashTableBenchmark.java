@@ -1,8 +1,13 @@
 
 
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class HashTableBenchmark {
 
@@ -43,6 +48,37 @@ public class HashTableBenchmark {
         @Override public String toString(){ return String.format("Gaussian(μ=%.1f; σ=%.1f)", mean, std); }
     }
 
+    /**
+     * Keys whose mix32 hashes share their low collisionBits bits (zero), so every table of up to
+     * 2^collisionBits buckets puts them all in bucket 0. Built by inverting the SplitMix64 finalizer.
+     */
+    public static class ClusteredDistribution implements Dist {
+        private final int collisionBits; private SplittableRandom rng;
+        public ClusteredDistribution(int collisionBits, long seed){ this.collisionBits=collisionBits; this.rng=new SplittableRandom(seed); }
+        public void reseed(long seed){ this.rng = new SplittableRandom(seed); }
+        public double next(){
+            long mask = (1L << collisionBits) - 1;
+            for (;;) {
+                long z = rng.nextLong();
+                z ^= ((z ^ (z >>> 32)) & mask);      // folded low bits become zero
+                long bits = unmix(z);
+                if (!Double.isNaN(Double.longBitsToDouble(bits))) return Double.longBitsToDouble(bits); // NaN payloads may not survive
+            }
+        }
+        public int collisionBits(){ return collisionBits; }
+        @Override public String toString(){ return String.format("Clustered(hash low %d bits = 0)", collisionBits); }
+
+        /** Inverse of the 64-bit part of MyHashTable.mix32 (before the fold). */
+        private static long unmix(long z) {
+            z = unshift(z, 31);
+            z = unshift(z * inverse(0x94D049BB133111EBL), 27);
+            z = unshift(z * inverse(0xBF58476D1CE4E5B9L), 30);
+            return z - 0x9E3779B97F4A7C15L;
+        }
+        private static long unshift(long x, int s){ long y = x; for (int i = s; i < 64; i += s) y = x ^ (y >>> s); return y; }
+        private static long inverse(long odd){ long inv = odd; for (int i = 0; i < 5; i++) inv *= 2 - odd * inv; return inv; }
+    }
+
     // ===== Key generation =====
 
     /** Hızlı üretim (distinct zorunlu değil) — mixed workload için yeterli. */
@@ -56,29 +92,70 @@ public class HashTableBenchmark {
     /** Build-only için YÖNERGE gereği: n adet **distinct** key. */
     public static double[] generateDistinctKeys(Dist d, int n, long seed) {
         d.reseed(seed);
-        HashSet<Long> seen = new HashSet<>(Math.max(16, n * 2));
+        // raw bits go into a primitive linear-probing set (0L = empty, +0.0 tracked apart); candidates are
+        // drawn in blocks of at most the missing count and hashed with the bulk mix32, same keys as one by one
+        int cap = 16;
+        while (cap * 0.75 < n) cap <<= 1;
+        long[] seen = new long[cap];
+        boolean seenZero = false;
+        double[] block = new double[64];
+        long[] blockBits = new long[64];
+        int[] blockHash = new int[64];
         double[] out = new double[n];
         int i = 0;
         while (i < n) {
-            double x = d.next();
-            long bits = Double.doubleToRawLongBits(x);
-            if (seen.add(bits)) out[i++] = x; // duplicate gelirse atla (resample)
+            int len = Math.min(64, n - i);
+            for (int j = 0; j < len; j++) {
+                block[j] = d.next();
+                blockBits[j] = Double.doubleToRawLongBits(block[j]);
+            }
+            MyHashTable.mix32(blockBits, 0L, blockHash, len);
+            for (int j = 0; j < len; j++) {
+                long bits = blockBits[j];
+                boolean added;
+                if (bits == 0L) {
+                    added = !seenZero;
+                    seenZero = true;
+                } else {
+                    int slot = blockHash[j] & (cap - 1);
+                    while (seen[slot] != 0L && seen[slot] != bits) slot = (slot + 1) & (cap - 1);
+                    added = seen[slot] == 0L;
+                    seen[slot] = bits;
+                }
+                if (added) out[i++] = block[j]; // duplicate gelirse atla (resample)
+            }
         }
         return out;
     }
 
     // ===== Workloads =====
 
-    public static void buildOnlyWorkload(MyHashTable table, double[] keys) {
+    public static void buildOnlyWorkload(DoubleIntTable table, double[] keys) {
         for (int i = 0; i < keys.length; i++) table.put(keys[i], i);
     }
     public static void buildOnlyWorkloadBaseline(HashMap<Double,Integer> map, double[] keys) {
         for (int i = 0; i < keys.length; i++) map.put(keys[i], i);
     }
 
-    public static void mixedWorkload(MyHashTable table, double[] keys, int nOps, long seed) {
+    /** Same inserts as buildOnlyWorkload, handed over as one putAll (values[i] = i, prebuilt by the caller). */
+    public static void buildOnlyBatchedWorkload(DoubleIntTable table, double[] keys, int[] values) {
+        table.putAll(keys, values);
+    }
+
+    /** Position-indexed values 0..n-1 for the batched build. */
+    static int[] indexValues(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) values[i] = i;
+        return values;
+    }
+
+    public static void mixedWorkload(DoubleIntTable table, double[] keys, int nOps, long seed) {
+        mixedWorkload(table, keys, nOps, seed, new double[Math.min(keys.length, nOps)]);
+    }
+
+    /** Mixed workload with a caller-supplied live-key buffer (length >= min(keys.length, nOps)); gets use getInt. */
+    public static void mixedWorkload(DoubleIntTable table, double[] keys, int nOps, long seed, double[] cur) {
         SplittableRandom rng = new SplittableRandom(seed);
-        double[] cur = new double[Math.min(keys.length, nOps)];
         int curSize = 0, keyIdx = 0;
         for (int op = 0; op < nOps; op++) {
             double r = rng.nextDouble();
@@ -91,7 +168,7 @@ public class HashTableBenchmark {
             } else if (r < 0.75) { // get
                 if (curSize > 0) {
                     int idx = rng.nextInt(curSize);
-                    table.get(cur[idx]);
+                    table.getInt(cur[idx], -1);
                 }
             } else { // remove
                 if (curSize > 0) {
@@ -104,9 +181,78 @@ public class HashTableBenchmark {
             }
         }
     }
+    /**
+     * Lookups against a table already holding keys: 10% gets of present keys, 45% gets and 45% removes of
+     * absent ones. An absent key is Math.nextUp of a present one, so it follows the same distribution.
+     */
+    public static void missHeavyWorkload(DoubleIntTable table, double[] keys, int nOps, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        for (int op = 0; op < nOps; op++) {
+            double r = rng.nextDouble();
+            double k = keys[rng.nextInt(keys.length)];
+            if (r < 0.10)      table.getInt(k, -1);
+            else if (r < 0.55) table.getInt(Math.nextUp(k), -1);
+            else               table.remove(Math.nextUp(k));
+        }
+    }
+    public static void missHeavyWorkloadBaseline(HashMap<Double,Integer> map, double[] keys, int nOps, long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        for (int op = 0; op < nOps; op++) {
+            double r = rng.nextDouble();
+            double k = keys[rng.nextInt(keys.length)];
+            if (r < 0.10)      map.get(k);
+            else if (r < 0.55) map.get(Math.nextUp(k));
+            else               map.remove(Math.nextUp(k));
+        }
+    }
+
+    /** Default skew of the "zipf" workload; "zipf-<s>" (e.g. "zipf-1.2") picks another. */
+    public static final double DEFAULT_ZIPF_SKEW = 0.99;
+
+    static double zipfSkew(String workloadType) {
+        return workloadType.startsWith("zipf-") ? Double.parseDouble(workloadType.substring("zipf-".length()))
+                                                : DEFAULT_ZIPF_SKEW;
+    }
+
+    /** nOps ranks in [0, n) with P(rank r) proportional to 1 / (r + 1)^skew, by inverse-CDF binary search. */
+    static int[] zipfRanks(int n, int nOps, double skew, long seed) {
+        double[] cdf = new double[n];
+        double total = 0;
+        for (int r = 0; r < n; r++) cdf[r] = total += 1.0 / Math.pow(r + 1, skew);
+        SplittableRandom rng = new SplittableRandom(seed);
+        int[] ranks = new int[nOps];
+        for (int op = 0; op < nOps; op++) {
+            int r = java.util.Arrays.binarySearch(cdf, rng.nextDouble() * total);
+            ranks[op] = r >= 0 ? r : Math.min(n - 1, -r - 1);
+        }
+        return ranks;
+    }
+
+    /**
+     * Skewed access to a table already holding keys: op i touches keys[ranks[i]] (keys are random, so rank
+     * order is unrelated to hash order); every 20th op is a put of the same key, the rest are getInt.
+     */
+    public static void zipfWorkload(DoubleIntTable table, double[] keys, int[] ranks) {
+        for (int op = 0; op < ranks.length; op++) {
+            double k = keys[ranks[op]];
+            if (op % 20 == 0) table.put(k, op);
+            else              table.getInt(k, -1);
+        }
+    }
+    public static void zipfWorkloadBaseline(HashMap<Double,Integer> map, double[] keys, int[] ranks) {
+        for (int op = 0; op < ranks.length; op++) {
+            double k = keys[ranks[op]];
+            if (op % 20 == 0) map.put(k, op);
+            else              map.get(k);
+        }
+    }
+
     public static void mixedWorkloadBaseline(HashMap<Double,Integer> map, double[] keys, int nOps, long seed) {
+        mixedWorkloadBaseline(map, keys, nOps, seed, new double[Math.min(keys.length, nOps)]);
+    }
+    public static void mixedWorkloadBaseline(HashMap<Double,Integer> map, double[] keys, int nOps, long seed,
+                                             double[] cur) {
         SplittableRandom rng = new SplittableRandom(seed);
-        double[] cur = new double[Math.min(keys.length, nOps)];
         int curSize = 0, keyIdx = 0;
         for (int op = 0; op < nOps; op++) {
             double r = rng.nextDouble();
@@ -133,80 +279,851 @@ public class HashTableBenchmark {
         }
     }
 
+    // ===== Table implementations =====
+
+    /** Default implementation set: the chained table only ("student" rows, as before). */
+    public static final String[] DEFAULT_IMPLS = {"student"};
+
+    /** Creates a fresh table for a CSV impl name. */
+    public static DoubleIntTable newTable(String impl) {
+        switch (impl) {
+            case "student":   return new MyHashTable();
+            case "student-incremental": {
+                MyHashTable t = new MyHashTable();
+                t.setIncrementalResize(true);
+                return t;
+            }
+            case "student-pooled": {
+                MyHashTable t = new MyHashTable();
+                t.setNodePoolSize(1024);
+                return t;
+            }
+            case "student-auto": {
+                MyHashTable t = new MyHashTable();
+                t.enableLoadFactorAutoTune(1.25, 0.25, 2.0); // 1.25 nodes per get, load factor free in [0.25, 2]
+                return t;
+            }
+            case "student-notree": {
+                MyHashTable t = new MyHashTable();
+                t.setTreeifyEnabled(false);
+                return t;
+            }
+            case "student-bloom": {
+                MyHashTable t = new MyHashTable();
+                t.setBloomFilterEnabled(true);
+                return t;
+            }
+            case "student-hot": {
+                MyHashTable t = new MyHashTable();
+                t.setHotCacheSize(1024);
+                return t;
+            }
+            case "student-seeded": {
+                MyHashTable t = new MyHashTable();
+                t.randomizeHashSeed();
+                return t;
+            }
+            case "student-notree-seeded": {
+                MyHashTable t = new MyHashTable();
+                t.setTreeifyEnabled(false);
+                t.randomizeHashSeed();
+                return t;
+            }
+            case "indexed":   return new IndexedHashTable();
+            case "segmented": return new SegmentedHashTable();
+            case "open":      return new OpenAddressingHashTable();
+            case "adaptive":  return new AdaptiveHashTable();
+            case "robinhood": return new RobinHoodHashTable();
+            case "swiss":     return new SwissHashTable();
+            case "cuckoo":    return new CuckooHashTable();
+            case "offheap":   return new OffHeapHashTable();
+            case "striped":   return new StripedHashTable();
+            case "synchronized": return new SynchronizedTable(new MyHashTable());
+            case "lockfree":  return new LockFreeHashTable();
+            case "chm":       return new ConcurrentMapTable();
+            default:
+                if (impl.startsWith("student-mix-")) { // built-in mixer, e.g. "student-mix-murmur3"
+                    HashMixer.Builtin m = HashMixer.Builtin.valueOf(impl.substring("student-mix-".length()).toUpperCase());
+                    return new MyHashTable(16, 0.75, m);
+                }
+                if (impl.startsWith("student-lf")) { // fixed load factor, e.g. "student-lf0.50"
+                    return new MyHashTable(16, Double.parseDouble(impl.substring("student-lf".length())));
+                }
+                throw new IllegalArgumentException("Unknown table implementation: " + impl);
+        }
+    }
+
     // ===== Benchmark runner (5 deneme, distinct kuralı build-only’de) =====
 
     public static void runBenchmark(String distName, Dist distribution, int n, String workloadType,
                                     java.io.PrintWriter csvWriter) {
+        runBenchmark(distName, distribution, n, workloadType, DEFAULT_IMPLS, csvWriter);
+    }
+
+    /** Runs every impl in {@code impls} plus the HashMap baseline on the same per-trial keys and seeds. */
+    public static void runBenchmark(String distName, Dist distribution, int n, String workloadType,
+                                    String[] impls, java.io.PrintWriter csvWriter) {
 
         final int NUM_TRIALS = 5;        // yönergeye göre 5
         final long BASE_SEED  = 1234L;   // trialSeed = 1234 + t
 
-        long[] myTimes = new long[NUM_TRIALS];
+        long[][] myTimes = new long[impls.length][NUM_TRIALS];
         long[] baseTimes = new long[NUM_TRIALS];
-        String myStats = "";
+        long[] myGcMs = new long[impls.length];
+        long[] myYoungGcs = new long[impls.length];
+        long baseGcMs = 0, baseYoungGcs = 0;
+        Measurement[] myFinal = new Measurement[impls.length];
+        Measurement baseFinal = null;
 
         for (int t = 0; t < NUM_TRIALS; t++) {
             long trialSeed = BASE_SEED + t;
 
             // --- Key üretimi ---
             final double[] keys;
-            if (workloadType.equals("build-only")) {
+            if (workloadType.startsWith("build-only") || workloadType.startsWith("zipf")) {
                 keys = generateDistinctKeys(distribution, n, trialSeed); // DISTINCT
             } else {
                 keys = generateKeysFast(distribution, n, trialSeed);     // hızlı, distinct gerekmez
             }
 
-            // --- MyHashTable ---
-            MyHashTable my = new MyHashTable();
-            long t0 = System.nanoTime();
-            if (workloadType.equals("build-only")) buildOnlyWorkload(my, keys);
-            else                                   mixedWorkload(my, keys, n, trialSeed);
-            long t1 = System.nanoTime();
-            myTimes[t] = (t1 - t0);
-            if (t == NUM_TRIALS - 1) myStats = my.stats();
+            // --- Tablolar (aynı key ve seed ile) ---
+            boolean lastTrial = t == NUM_TRIALS - 1;
+            for (int i = 0; i < impls.length; i++) {
+                Measurement m = measureTable(impls[i], workloadType, keys, n, trialSeed, lastTrial);
+                myTimes[i][t] = m.nanos;
+                myGcMs[i] += m.gcMs;
+                myYoungGcs[i] += m.youngGcs;
+                if (lastTrial) myFinal[i] = m;
+            }
 
             // --- Baseline HashMap ---
-            HashMap<Double,Integer> hm = new HashMap<>();
-            t0 = System.nanoTime();
-            if (workloadType.equals("build-only")) buildOnlyWorkloadBaseline(hm, keys);
-            else                                   mixedWorkloadBaseline(hm, keys, n, trialSeed);
-            t1 = System.nanoTime();
-            baseTimes[t] = (t1 - t0);
+            Measurement b = measureBaseline(workloadType, keys, n, trialSeed, lastTrial);
+            baseTimes[t] = b.nanos;
+            baseGcMs += b.gcMs;
+            baseYoungGcs += b.youngGcs;
+            if (lastTrial) baseFinal = b;
         }
 
-        long avgMy   = average(myTimes);
-        long avgBase = average(baseTimes);
         int ops = n;
-        double thrMy   = (ops * 1_000_000_000.0) / avgMy;
-        double thrBase = (ops * 1_000_000_000.0) / avgBase;
-
-        String[] statParts = parseStats(myStats);
         String distParams  = getDistributionParams(distribution);
 
-        csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s\n",
-                distName, distParams, n, workloadType, "student",
-                avgMy, ops, thrMy, statParts[0], statParts[1], statParts[2]);
+        for (int i = 0; i < impls.length; i++) {
+            long avgMy = average(myTimes[i]);
+            double thrMy = (ops * 1_000_000_000.0) / avgMy;
+            String[] statParts = parseStats(myFinal[i].stats);
+            String extra = joinExtra(statParts[3], measurementExtra(myGcMs[i], myYoungGcs[i], NUM_TRIALS, myFinal[i]));
+            extra = joinExtra(extra, "capacity=" + myFinal[i].capacity);
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    distName, distParams, n, workloadType, impls[i],
+                    avgMy, ops, thrMy, statParts[0], statParts[1], statParts[2], extra);
+        }
 
-        csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s\n",
+        long avgBase = average(baseTimes);
+        double thrBase = (ops * 1_000_000_000.0) / avgBase;
+        csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
                 distName, distParams, n, workloadType, "hashmap",
-                avgBase, ops, thrBase, "-1", "-1", "-1");
+                avgBase, ops, thrBase, "-1", "-1", "-1", measurementExtra(baseGcMs, baseYoungGcs, NUM_TRIALS, baseFinal));
+
+        csvWriter.flush();
+    }
+
+    /**
+     * One timed run. On the final trial it also collects stats, heapBytes (heap in use after a full GC
+     * with the table alive minus heap in use after the table is dropped) and the slowest single put.
+     */
+    private static final class Measurement {
+        long nanos, gcMs, youngGcs, heapBytes, maxPutNs, allocatedBytes, ops;
+        int capacity; // table capacity() when the workload ends
+        String stats;
+    }
+
+    /**
+     * miss-heavy and zipf time only lookups, so their table is filled with the keys here, before the clock and
+     * the allocation/GC counters start. Null for the other workloads, whose build is part of the measurement.
+     */
+    private static DoubleIntTable prebuiltTable(String impl, String workloadType, double[] keys) {
+        if (!prebuildsTable(workloadType)) return null;
+        DoubleIntTable table = newTable(impl);
+        buildOnlyWorkload(table, keys);
+        return table;
+    }
+
+    private static HashMap<Double,Integer> prebuiltBaseline(String workloadType, double[] keys) {
+        if (!prebuildsTable(workloadType)) return null;
+        HashMap<Double,Integer> map = new HashMap<>();
+        buildOnlyWorkloadBaseline(map, keys);
+        return map;
+    }
+
+    private static boolean prebuildsTable(String workloadType) {
+        return workloadType.equals("miss-heavy") || workloadType.startsWith("zipf");
+    }
+
+    /** The zipf rank trace (also drawn before the counters start), or null for the other workloads. */
+    private static int[] zipfRanksFor(String workloadType, int keyCount, int nOps, long trialSeed) {
+        return workloadType.startsWith("zipf") ? zipfRanks(keyCount, nOps, zipfSkew(workloadType), trialSeed) : null;
+    }
+
+    private static Measurement measureTable(String impl, String workloadType, double[] keys, int n,
+                                            long trialSeed, boolean finalTrial) {
+        Measurement m = new Measurement();
+        double[] scratch = new double[Math.min(keys.length, n)];
+        int[] values = workloadType.equals("build-only-batched") ? indexValues(keys.length) : null;
+        int[] ranks = zipfRanksFor(workloadType, keys.length, n, trialSeed);
+        DoubleIntTable my = prebuiltTable(impl, workloadType, keys);
+        long gc0 = gcTimeMillis();
+        long young0 = youngGcCount();
+        long a0 = allocatedBytes();
+        if (my == null) my = newTable(impl);
+        long t0 = System.nanoTime();
+        if (workloadType.equals("build-only"))              buildOnlyWorkload(my, keys);
+        else if (workloadType.equals("build-only-batched")) buildOnlyBatchedWorkload(my, keys, values);
+        else if (workloadType.equals("miss-heavy"))         missHeavyWorkload(my, keys, n, trialSeed);
+        else if (ranks != null)                             zipfWorkload(my, keys, ranks);
+        else                                                mixedWorkload(my, keys, n, trialSeed, scratch);
+        long t1 = System.nanoTime();
+        m.allocatedBytes = allocatedBytes() - a0;
+        m.ops = n;
+        m.nanos = t1 - t0;
+        m.gcMs = gcTimeMillis() - gc0;
+        m.youngGcs = youngGcCount() - young0;
+        m.capacity = my.capacity();
+        long withTable = 0;
+        if (finalTrial) {
+            m.stats = my.stats();
+            withTable = usedHeapAfterGc();
+        }
+        release(my);
+        my = null;
+        if (finalTrial) {
+            m.heapBytes = withTable - usedHeapAfterGc();
+            DoubleIntTable fresh = newTable(impl);
+            m.maxPutNs = worstPutNanos(fresh, keys);
+            release(fresh);
+        }
+        return m;
+    }
+
+    private static Measurement measureBaseline(String workloadType, double[] keys, int n,
+                                               long trialSeed, boolean finalTrial) {
+        Measurement m = new Measurement();
+        double[] scratch = new double[Math.min(keys.length, n)];
+        int[] ranks = zipfRanksFor(workloadType, keys.length, n, trialSeed);
+        HashMap<Double,Integer> hm = prebuiltBaseline(workloadType, keys);
+        long gc0 = gcTimeMillis();
+        long young0 = youngGcCount();
+        long a0 = allocatedBytes();
+        if (hm == null) hm = new HashMap<>();
+        long t0 = System.nanoTime();
+        if (workloadType.startsWith("build-only"))  buildOnlyWorkloadBaseline(hm, keys); // HashMap has no batch put
+        else if (workloadType.equals("miss-heavy")) missHeavyWorkloadBaseline(hm, keys, n, trialSeed);
+        else if (ranks != null)                     zipfWorkloadBaseline(hm, keys, ranks);
+        else                                        mixedWorkloadBaseline(hm, keys, n, trialSeed, scratch);
+        long t1 = System.nanoTime();
+        m.allocatedBytes = allocatedBytes() - a0;
+        m.ops = n;
+        m.nanos = t1 - t0;
+        m.gcMs = gcTimeMillis() - gc0;
+        m.youngGcs = youngGcCount() - young0;
+        long withMap = finalTrial ? usedHeapAfterGc() : 0;
+        hm = null;
+        if (finalTrial) {
+            m.heapBytes = withMap - usedHeapAfterGc();
+            m.maxPutNs = worstPutNanosBaseline(new HashMap<Double,Integer>(), keys);
+        }
+        return m;
+    }
+
+    // ===== Çok iş parçacıklı mixed workload =====
+
+    /** Today's baseline for sharing one table: every call under a single global lock. */
+    static final class SynchronizedTable implements DoubleIntTable {
+        private final DoubleIntTable table;
+        SynchronizedTable(DoubleIntTable table) { this.table = table; }
+        public synchronized void put(double key, int value) { table.put(key, value); }
+        public synchronized Integer get(double key) { return table.get(key); }
+        public synchronized int getInt(double key, int missingValue) { return table.getInt(key, missingValue); }
+        public synchronized boolean containsKey(double key) { return table.containsKey(key); }
+        public synchronized boolean remove(double key) { return table.remove(key); }
+        public synchronized int size() { return table.size(); }
+        public synchronized int capacity() { return table.capacity(); }
+        public synchronized String stats() { return table.stats(); }
+    }
+
+    /** ConcurrentHashMap<Double,Integer> behind the table API, as the JDK reference for the concurrent runs. */
+    static final class ConcurrentMapTable implements DoubleIntTable {
+        private final ConcurrentHashMap<Double,Integer> map = new ConcurrentHashMap<>();
+        public void put(double key, int value) { map.put(key, value); }
+        public Integer get(double key) { return map.get(key); }
+        public int getInt(double key, int missingValue) { Integer v = map.get(key); return v == null ? missingValue : v; }
+        public boolean containsKey(double key) { return map.containsKey(key); }
+        public boolean remove(double key) { return map.remove(key) != null; }
+        public int size() { return map.size(); }
+        public int capacity() { return -1; }
+        public String stats() { return "maxChainLength=-1, meanChainLength=-1, loadFactor=-1"; }
+    }
+
+    // ===== Iteration =====
 
+    /** Reused forEach target, so the timed passes allocate nothing themselves. */
+    private static final class SumConsumer implements DoubleIntConsumer {
+        double keySum;
+        long valueSum;
+        public void accept(double key, int value) {
+            keySum += key;
+            valueSum += value;
+        }
+    }
+
+    /**
+     * One full pass summing keys and values over n distinct keys: MyHashTable forEach, cursor and
+     * exportKeys + exportValues (into preallocated arrays) against HashMap.entrySet() with unboxing.
+     * Rows use workload "iterate"; extra has ns and allocated bytes per entry.
+     */
+    public static void runIterationBenchmark(String distName, Dist distribution, int n, java.io.PrintWriter csvWriter) {
+        final int NUM_TRIALS = 5;
+        final long BASE_SEED  = 1234L;
+        final int reps = Math.max(1, 5_000_000 / n);
+        String[] variants = {"student-forEach", "student-cursor", "student-export", "hashmap-entrySet"};
+        long[][] times = new long[variants.length][NUM_TRIALS];
+        long[] allocated = new long[variants.length];
+        SumConsumer sum = new SumConsumer();
+        double[] keyOut = new double[n];
+        int[] valueOut = new int[n];
+        double checksum = 0;
+
+        for (int t = 0; t < NUM_TRIALS; t++) {
+            double[] keys = generateDistinctKeys(distribution, n, BASE_SEED + t);
+            MyHashTable table = new MyHashTable();
+            HashMap<Double, Integer> map = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                table.put(keys[i], i);
+                map.put(keys[i], i);
+            }
+            MyHashTable.Cursor cursor = table.cursor();
+            for (int v = 0; v < variants.length; v++) {
+                long alloc0 = 0;
+                for (int r = -1; r < reps; r++) { // r = -1: warm-up pass
+                    if (r == 0) {
+                        alloc0 = allocatedBytes();
+                        times[v][t] = System.nanoTime();
+                    }
+                    switch (v) {
+                        case 0:
+                            table.forEach(sum);
+                            break;
+                        case 1:
+                            for (cursor.reset(); cursor.advance(); ) sum.accept(cursor.key(), cursor.value());
+                            break;
+                        case 2:
+                            table.exportKeys(keyOut);
+                            table.exportValues(valueOut);
+                            for (int i = 0; i < n; i++) sum.accept(keyOut[i], valueOut[i]);
+                            break;
+                        default:
+                            for (java.util.Map.Entry<Double, Integer> e : map.entrySet()) sum.accept(e.getKey(), e.getValue());
+                    }
+                }
+                times[v][t] = (System.nanoTime() - times[v][t]) / reps;
+                if (t == NUM_TRIALS - 1) allocated[v] = alloc0 < 0 ? -1 : (allocatedBytes() - alloc0) / reps;
+            }
+            checksum += sum.keySum + sum.valueSum;
+        }
+        if (checksum == 42) System.out.print(""); // keeps the sums alive
+
+        String distParams = getDistributionParams(distribution);
+        for (int v = 0; v < variants.length; v++) {
+            long avg = average(times[v]);
+            double thr = (n * 1_000_000_000.0) / avg;
+            String extra = String.format("nsPerEntry=%.3f;bytesPerEntry=%.3f", avg / (double) n,
+                    allocated[v] < 0 ? -1.0 : allocated[v] / (double) n);
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    distName, distParams, n, "iterate", variants[v],
+                    avg, n, thr, "-1", "-1", "-1", extra);
+        }
         csvWriter.flush();
     }
 
+    /**
+     * Sequential against parallel scans over a table of n distinct keys: value sum (valueStream() vs
+     * sumValues()) and a key filter count (keyStream() vs countMatching(), keys below the distribution's
+     * median-ish midpoint 500). Rows use workload "scan"; extra has the common pool parallelism.
+     */
+    public static void runScanBenchmark(String distName, Dist distribution, int n, java.io.PrintWriter csvWriter) {
+        final int NUM_TRIALS = 5;
+        final long BASE_SEED  = 1234L;
+        final int reps = Math.max(1, 5_000_000 / n);
+        String[] variants = {"sum-sequential", "sum-parallel", "count-sequential", "count-parallel"};
+        java.util.function.DoublePredicate below = k -> k < 500.0;
+        long[][] times = new long[variants.length][NUM_TRIALS];
+        long checksum = 0;
+
+        for (int t = 0; t < NUM_TRIALS; t++) {
+            double[] keys = generateDistinctKeys(distribution, n, BASE_SEED + t);
+            MyHashTable table = new MyHashTable();
+            for (int i = 0; i < n; i++) table.put(keys[i], i);
+            for (int v = 0; v < variants.length; v++) {
+                for (int r = -1; r < reps; r++) { // r = -1: warm-up pass
+                    if (r == 0) times[v][t] = System.nanoTime();
+                    switch (v) {
+                        case 0:  checksum += table.valueStream().asLongStream().sum(); break;
+                        case 1:  checksum += table.sumValues(); break;
+                        case 2:  checksum += table.keyStream().filter(below).count(); break;
+                        default: checksum += table.countMatching(below);
+                    }
+                }
+                times[v][t] = (System.nanoTime() - times[v][t]) / reps;
+            }
+        }
+        if (checksum == 42) System.out.print(""); // keeps the scans alive
+
+        String distParams = getDistributionParams(distribution);
+        String extra = "parallelism=" + java.util.concurrent.ForkJoinPool.getCommonPoolParallelism();
+        for (int v = 0; v < variants.length; v++) {
+            long avg = average(times[v]);
+            double thr = (n * 1_000_000_000.0) / avg;
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    distName, distParams, n, "scan", variants[v],
+                    avg, n, thr, "-1", "-1", "-1", joinExtra(extra, String.format("nsPerEntry=%.3f", avg / (double) n)));
+        }
+        csvWriter.flush();
+    }
+
+    // ===== Bounded caches =====
+
+    /** LinkedHashMap in access order that drops its eldest entry past maxEntries: the LRU reference. */
+    private static final class LruMap extends java.util.LinkedHashMap<Double, Integer> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+        LruMap(int maxEntries) {
+            super((int) (maxEntries / 0.75) + 1, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+        @Override protected boolean removeEldestEntry(java.util.Map.Entry<Double, Integer> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    /**
+     * Read-through cache of maxEntries over n distinct keys under Zipf(skew) traffic: each op gets
+     * keys[rank] and, on a miss, puts it. BoundedHashTable with CLOCK and with W-TinyLFU against an LRU
+     * LinkedHashMap. Each trial replays the same trace into a fresh cache once untimed, then timed into
+     * another fresh one. Rows use workload "cache-zipf-<skew>"; extra has the hit ratio and allocated bytes per op.
+     */
+    public static void runCacheBenchmark(String distName, Dist distribution, int n, double skew, int maxEntries,
+                                         java.io.PrintWriter csvWriter) {
+        final int NUM_TRIALS = 5;
+        final long BASE_SEED  = 1234L;
+        final int nOps = 2_000_000;
+        String[] variants = {"bounded-clock", "bounded-tinylfu", "lru-linkedhashmap"};
+        long[][] times = new long[variants.length][NUM_TRIALS];
+        double[] hitRatio = new double[variants.length];
+        long[] allocated = new long[variants.length];
+
+        for (int t = 0; t < NUM_TRIALS; t++) {
+            double[] keys = generateDistinctKeys(distribution, n, BASE_SEED + t);
+            int[] ranks = zipfRanks(n, nOps, skew, BASE_SEED + t);
+            for (int v = 0; v < variants.length; v++) {
+                long hits = 0, alloc0 = 0;
+                for (int r = -1; r < 1; r++) { // r = -1: warm-up pass
+                    BoundedHashTable cache = v == 0 ? BoundedHashTable.clock(maxEntries)
+                                           : v == 1 ? BoundedHashTable.tinyLfu(maxEntries) : null;
+                    LruMap lru = v == 2 ? new LruMap(maxEntries) : null;
+                    if (r == 0) {
+                        alloc0 = allocatedBytes();
+                        times[v][t] = System.nanoTime();
+                    }
+                    hits = 0;
+                    if (cache != null) {
+                        for (int op = 0; op < nOps; op++) {
+                            double k = keys[ranks[op]];
+                            if (cache.getInt(k, -1) >= 0) hits++;
+                            else                          cache.put(k, ranks[op]);
+                        }
+                    } else {
+                        for (int op = 0; op < nOps; op++) {
+                            double k = keys[ranks[op]];
+                            if (lru.get(k) != null) hits++;
+                            else                    lru.put(k, ranks[op]);
+                        }
+                    }
+                }
+                times[v][t] = System.nanoTime() - times[v][t];
+                if (t == NUM_TRIALS - 1) allocated[v] = alloc0 < 0 ? -1 : allocatedBytes() - alloc0;
+                hitRatio[v] += hits / (double) nOps / NUM_TRIALS;
+            }
+        }
+
+        String distParams = getDistributionParams(distribution);
+        String workload = "cache-zipf-" + skew;
+        for (int v = 0; v < variants.length; v++) {
+            long avg = average(times[v]);
+            double thr = (nOps * 1_000_000_000.0) / avg;
+            String extra = String.format("maxEntries=%d;hitRatio=%.4f;bytesPerOp=%.3f", maxEntries, hitRatio[v],
+                    allocated[v] < 0 ? -1.0 : allocated[v] / (double) nOps);
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    distName, distParams, n, workload, variants[v],
+                    avg, nOps, thr, "-1", "-1", "-1", extra);
+        }
+        csvWriter.flush();
+    }
+
+    // ===== Huge tables (streamed keys, no baseline) =====
+
+    /**
+     * Build then look up n keys (n may pass 2^31) streamed from the distribution in 1M-key blocks, so
+     * neither a key array nor a HashMap baseline has to fit in memory. One trial per impl, seed 1234; only
+     * the table calls are timed. Keys are not made distinct, so the final size can be a little under n.
+     * An impl that runs out of memory or throws gets a row with failed=<error class> and the keys it held.
+     */
+    public static void runHugeBenchmark(String distName, Dist distribution, long n, String[] impls,
+                                        java.io.PrintWriter csvWriter) {
+        final long SEED = 1234L;
+        final int BLOCK = 1 << 20;
+        double[] buf = new double[(int) Math.min(BLOCK, n)];
+        String distParams = getDistributionParams(distribution);
+
+        for (String impl : impls) {
+            DoubleIntTable table = null;
+            long heapBefore = usedHeapAfterGc();
+            long buildNs = 0, getNs = 0, hits = 0, inserted = 0;
+            String failure = null;
+            try {
+                table = newTable(impl);
+                distribution.reseed(SEED);
+                for (long done = 0; done < n; done += buf.length) {
+                    int len = (int) Math.min(buf.length, n - done);
+                    for (int j = 0; j < len; j++) buf[j] = distribution.next();
+                    long t0 = System.nanoTime();
+                    // masked to stay non-negative: index 2^32-1 cast to int would be -1, the miss marker below
+                    for (int j = 0; j < len; j++) table.put(buf[j], (int) ((done + j) & 0x7fffffff));
+                    buildNs += System.nanoTime() - t0;
+                    inserted = done + len;
+                }
+                distribution.reseed(SEED);
+                for (long done = 0; done < n; done += buf.length) {
+                    int len = (int) Math.min(buf.length, n - done);
+                    for (int j = 0; j < len; j++) buf[j] = distribution.next();
+                    long t0 = System.nanoTime();
+                    for (int j = 0; j < len; j++) if (table.getInt(buf[j], -1) != -1) hits++;
+                    getNs += System.nanoTime() - t0;
+                }
+            } catch (OutOfMemoryError e) {
+                failure = "OutOfMemoryError";
+            } catch (RuntimeException e) {
+                failure = e.getClass().getSimpleName();
+            }
+
+            long heapBytes = failure == null ? usedHeapAfterGc() - heapBefore : -1;
+            long size = table instanceof SegmentedHashTable ? ((SegmentedHashTable) table).longSize()
+                    : table != null ? table.size() : 0;
+            String[] statParts = failure == null ? parseStats(table.stats()) : new String[] {"-1", "-1", "-1", ""};
+            String extra = failure == null
+                    ? String.format("size=%d;getNsPerOp=%.2f;hits=%d;heapBytes=%d", size, getNs / (double) n, hits, heapBytes)
+                    : String.format("failed=%s;keysInserted=%d", failure, inserted);
+            table = null; // drop it before the next impl
+            double thr = buildNs > 0 ? (inserted * 1_000_000_000.0) / buildNs : 0;
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    distName, distParams, n, "build-streamed", impl,
+                    buildNs, inserted, thr, statParts[0], statParts[1], statParts[2], joinExtra(statParts[3], extra));
+            csvWriter.flush();
+        }
+    }
+
+    // ===== Bulk hashing =====
+
+    /**
+     * mix32 over n random key bits: one call per key ("scalar") against the four-lane unrolled bulk
+     * MyHashTable.mix32(long[], long, int[], int) ("unrolled4"). Rows use workload "bulk-hash".
+     */
+    public static void runBulkHashBenchmark(int n, java.io.PrintWriter csvWriter) {
+        final int NUM_TRIALS = 5;
+        final long BASE_SEED  = 1234L;
+        final int reps = Math.max(1, 10_000_000 / n);
+        String[] variants = {"scalar", "unrolled4"};
+        long[][] times = new long[variants.length][NUM_TRIALS];
+        int[] out = new int[n]; // stores to this shared array keep the loops from being eliminated
+
+        for (int t = 0; t < NUM_TRIALS; t++) {
+            SplittableRandom rng = new SplittableRandom(BASE_SEED + t);
+            long[] bits = new long[n];
+            for (int j = 0; j < n; j++) bits[j] = Double.doubleToRawLongBits(rng.nextDouble());
+            for (int v = 0; v < variants.length; v++) {
+                for (int r = -1; r < reps; r++) { // r = -1: warm-up pass
+                    if (r == 0) times[v][t] = System.nanoTime();
+                    if (v == 0) {
+                        for (int j = 0; j < n; j++) out[j] = MyHashTable.mix32(bits[j]);
+                    } else {
+                        MyHashTable.mix32(bits, 0L, out, n);
+                    }
+                }
+                times[v][t] = (System.nanoTime() - times[v][t]) / reps;
+            }
+        }
+
+        for (int v = 0; v < variants.length; v++) {
+            long avg = average(times[v]);
+            double thr = (n * 1_000_000_000.0) / avg;
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    "Uniform", "min=0.0 max=1.0", n, "bulk-hash", variants[v],
+                    avg, n, thr, "-1", "-1", "-1", String.format("nsPerKey=%.3f", avg / (double) n));
+        }
+        csvWriter.flush();
+    }
+
+    // ===== Hash quality (mixer only, no table) =====
+
+    /**
+     * Per mixer: ns per key of hashing n distinct keys alone, and how evenly the hashes fill the buckets of a
+     * table holding the keys at load factor 0.75 (power-of-two capacity, index = hash & mask, as MyHashTable).
+     * Uniform hashing puts Poisson(n/m) keys in each bucket, so chi-square of the bucket counts against n/m,
+     * divided by its m - 1 degrees of freedom, is about 1; clustering shows up as chi2PerDf >> 1.
+     * Rows use the benchmark CSV layout: workload "hash-quality", max/mean chain are the bucket counts.
+     */
+    public static void runHashQualityBenchmark(String distName, Dist distribution, int n, HashMixer.Builtin[] mixers,
+                                               java.io.PrintWriter csvWriter) {
+        final int NUM_TRIALS = 5;
+        final long BASE_SEED  = 1234L;
+        final int reps = Math.max(1, 2_000_000 / n); // timed passes over the keys, so small n is still measurable
+
+        int m = 16;
+        while (m * 0.75 < n) m <<= 1;
+        long[][] times = new long[mixers.length][NUM_TRIALS];
+        int[] counts = new int[m];
+        double[] chi2 = new double[mixers.length];
+        int[] maxBucket = new int[mixers.length];
+        int[] nonEmpty = new int[mixers.length];
+        long sink = 0;
+
+        for (int t = 0; t < NUM_TRIALS; t++) {
+            double[] keys = generateDistinctKeys(distribution, n, BASE_SEED + t);
+            long[] bits = new long[n];
+            for (int j = 0; j < n; j++) bits[j] = Double.doubleToRawLongBits(keys[j]);
+
+            for (int i = 0; i < mixers.length; i++) {
+                HashMixer mixer = mixers[i];
+                for (int j = 0; j < n; j++) sink += mixer.hash(bits[j]); // warm-up
+                long t0 = System.nanoTime();
+                for (int r = 0; r < reps; r++) {
+                    for (int j = 0; j < n; j++) sink += mixer.hash(bits[j]);
+                }
+                times[i][t] = (System.nanoTime() - t0) / reps;
+
+                if (t == NUM_TRIALS - 1) {
+                    java.util.Arrays.fill(counts, 0);
+                    for (int j = 0; j < n; j++) counts[mixer.hash(bits[j]) & (m - 1)]++;
+                    double expected = n / (double) m, sum = 0;
+                    for (int c : counts) {
+                        sum += (c - expected) * (c - expected);
+                        if (c > maxBucket[i]) maxBucket[i] = c;
+                        if (c > 0) nonEmpty[i]++;
+                    }
+                    chi2[i] = sum / expected;
+                }
+            }
+        }
+        if (sink == 42) System.out.print(""); // keeps the hashing loops alive
+
+        String distParams = getDistributionParams(distribution);
+        for (int i = 0; i < mixers.length; i++) {
+            long avg = average(times[i]);
+            double thr = (n * 1_000_000_000.0) / avg;
+            String extra = String.format("nsPerKey=%.3f;buckets=%d;chi2=%.1f;chi2PerDf=%.3f",
+                    avg / (double) n, m, chi2[i], chi2[i] / (m - 1));
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%d,%.3f,%.3f,\"%s\"\n",
+                    distName, distParams, n, "hash-quality", "mix-" + mixers[i].name().toLowerCase(),
+                    avg, n, thr, maxBucket[i], n / (double) nonEmpty[i], n / (double) m, extra);
+        }
+        csvWriter.flush();
+    }
+
+    /**
+     * Runs mixedWorkload on {@code threads} threads sharing one table (n ops in total, n/threads each).
+     * Thread w uses its own keys and seed trialSeed + 1_000_000*w, so thread 0 matches the single-threaded run.
+     * Throughput is aggregate: total ops over wall time from the common start until the last thread ends.
+     */
+    public static void runConcurrentBenchmark(String distName, Dist distribution, int n, int threads,
+                                              String[] impls, java.io.PrintWriter csvWriter) {
+        final int NUM_TRIALS = 5;
+        final long BASE_SEED  = 1234L;
+        final int perThread = n / threads;
+        final int ops = perThread * threads;
+
+        long[][] times = new long[impls.length][NUM_TRIALS];
+        String[] stats = new String[impls.length];
+
+        for (int t = 0; t < NUM_TRIALS; t++) {
+            long trialSeed = BASE_SEED + t;
+            double[][] keys = new double[threads][];
+            for (int w = 0; w < threads; w++) {
+                keys[w] = generateKeysFast(distribution, perThread, trialSeed + 1_000_000L * w);
+            }
+            for (int i = 0; i < impls.length; i++) {
+                DoubleIntTable table = newTable(impls[i]);
+                times[i][t] = runThreads(table, keys, perThread, trialSeed);
+                if (t == NUM_TRIALS - 1) stats[i] = table.stats();
+                release(table);
+            }
+        }
+
+        String distParams = getDistributionParams(distribution);
+        for (int i = 0; i < impls.length; i++) {
+            long avg = average(times[i]);
+            double thr = (ops * 1_000_000_000.0) / avg;
+            String[] statParts = parseStats(stats[i]);
+            csvWriter.printf("\"%s\",\"%s\",%d,%s,%s,%d,%d,%.2f,%s,%s,%s,\"%s\"\n",
+                    distName, distParams, n, "mixed-mt", impls[i],
+                    avg, ops, thr, statParts[0], statParts[1], statParts[2],
+                    joinExtra("threads=" + threads, statParts[3]));
+        }
+        csvWriter.flush();
+    }
+
+    /** Starts one thread per key slice, releases them together and returns the wall time in ns. */
+    private static long runThreads(final DoubleIntTable table, final double[][] keys, final int opsPerThread,
+                                   final long trialSeed) {
+        final int threads = keys.length;
+        final java.util.concurrent.CountDownLatch ready = new java.util.concurrent.CountDownLatch(threads);
+        final java.util.concurrent.CountDownLatch start = new java.util.concurrent.CountDownLatch(1);
+        final Throwable[] failure = new Throwable[1];
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            final int id = w;
+            workers[w] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    mixedWorkload(table, keys[id], opsPerThread, trialSeed + 1_000_000L * id);
+                } catch (Throwable e) {
+                    synchronized (failure) { failure[0] = e; }
+                }
+            }, "bench-worker-" + w);
+            workers[w].start();
+        }
+        try {
+            ready.await();
+            long t0 = System.nanoTime();
+            start.countDown();
+            for (Thread w : workers) w.join();
+            long t1 = System.nanoTime();
+            synchronized (failure) {
+                if (failure[0] != null) throw new RuntimeException("worker failed", failure[0]);
+            }
+            return t1 - t0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void release(DoubleIntTable table) {
+        if (table instanceof OffHeapHashTable) ((OffHeapHashTable) table).close();
+    }
+
+    // ===== Tek operasyon gecikmesi =====
+
+    /** Inserts every key, timing each put on its own; returns the slowest one (resize pauses show up here). */
+    public static long worstPutNanos(DoubleIntTable table, double[] keys) {
+        long worst = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long t0 = System.nanoTime();
+            table.put(keys[i], i);
+            long dt = System.nanoTime() - t0;
+            if (dt > worst) worst = dt;
+        }
+        return worst;
+    }
+    public static long worstPutNanosBaseline(HashMap<Double,Integer> map, double[] keys) {
+        long worst = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long t0 = System.nanoTime();
+            map.put(keys[i], i);
+            long dt = System.nanoTime() - t0;
+            if (dt > worst) worst = dt;
+        }
+        return worst;
+    }
+
     private static long average(long[] a){ long s=0; for(long v:a) s+=v; return s/a.length; }
 
+    // ===== Memory / GC ölçümü =====
+
+    /** Accumulated collection time of all collectors (ms). */
+    static long gcTimeMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long t = gc.getCollectionTime();
+            if (t > 0) total += t;
+        }
+        return total;
+    }
+
+    /** Collections so far by the young-generation collectors (recognised by the usual HotSpot bean names). */
+    static long youngGcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String name = gc.getName();
+            boolean young = name.contains("Young") || name.contains("Scavenge") || name.equals("Copy")
+                    || name.equals("ParNew") || name.contains("Minor");
+            long c = gc.getCollectionCount();
+            if (young && c > 0) total += c;
+        }
+        return total;
+    }
+
+    /** Heap in use right after a requested full GC, from the pools' after-collection usage (best effort). */
+    static long usedHeapAfterGc() {
+        System.gc();
+        System.gc(); // Serial GC's pool figures lag one collection behind
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage u = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (u != null) used += u.getUsed();
+        }
+        return used;
+    }
+
+    /** Bytes allocated so far by the current thread, or -1 if the JVM cannot tell. */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static String measurementExtra(long gcMsTotal, long youngGcTotal, int trials, Measurement last) {
+        double bytesPerOp = last.allocatedBytes < 0 ? -1 : last.allocatedBytes / (double) last.ops;
+        double allocMBps = last.allocatedBytes < 0 ? -1 : last.allocatedBytes * 1e9 / last.nanos / (1 << 20);
+        return String.format("gcMsPerTrial=%.1f;youngGcsPerTrial=%.1f;heapBytes=%d;maxPutNs=%d;bytesPerOp=%.2f;allocMBps=%.1f",
+                gcMsTotal / (double) trials, youngGcTotal / (double) trials, last.heapBytes, last.maxPutNs,
+                bytesPerOp, allocMBps);
+    }
+
+    static String joinExtra(String a, String b) {
+        if (a == null || a.isEmpty()) return b;
+        if (b == null || b.isEmpty()) return a;
+        return a + ";" + b;
+    }
+
+    /** {max_chain, mean_chain, load_factor, extra}; extra joins impl-specific fields (e.g. kickouts=..) with ';'. */
     private static String[] parseStats(String stats) {
-        String[] result = new String[]{"0","0.0","0.0"};
+        String[] result = new String[]{"0","0.0","0.0",""};
         if (stats == null) return result;
         try {
+            StringBuilder extra = new StringBuilder();
             String[] parts = stats.split(",");
             for (String part : parts) {
                 part = part.trim();
                 if (part.startsWith("maxChainLength=")) result[0] = part.substring("maxChainLength=".length());
                 else if (part.startsWith("meanChainLength=")) result[1] = part.substring("meanChainLength=".length());
                 else if (part.startsWith("loadFactor="))     result[2] = part.substring("loadFactor=".length());
+                else if (!part.startsWith("M=") && !part.startsWith("size=") && !part.isEmpty()) {
+                    if (extra.length() > 0) extra.append(';');
+                    extra.append(part);
+                }
             }
+            result[3] = extra.toString();
         } catch (Exception ignore) {}
         return result;
     }
@@ -221,6 +1138,8 @@ public class HashTableBenchmark {
         } else if (d instanceof ExponentialDistribution) {
             ExponentialDistribution e = (ExponentialDistribution) d;
             return String.format("lambda=%.4f", e.lambda());
+        } else if (d instanceof ClusteredDistribution) {
+            return String.format("collisionBits=%d", ((ClusteredDistribution) d).collisionBits());
         }
         return d.toString();
     }
@@ -0,0 +1,162 @@
+import java.util.Arrays;
+
+public class IndexedHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+
+    /*
+     * Separate chaining without node objects. Entry i lives in parallel arrays (raw key bits, mix32 hash,
+     * value, next link); heads[b] and next[i] hold entry index + 1, so 0 ends a chain and fresh int[]s need no
+     * fill. Entries stay dense in [0, size): a removal moves the last entry into the hole. A resize grows the
+     * entry arrays in place (copyOf) and only rebuilds heads and next from the cached hashes.
+     */
+    private int[] heads;
+    private long[] keyBits;
+    private int[] hash32;
+    private int[] values;
+    private int[] next;
+    private int size;
+    private int mask;
+    private final double loadFactor;
+    private int threshold;
+
+    public IndexedHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public IndexedHashTable(int initialCapacity, double loadFactor) {
+        if (initialCapacity < 1) initialCapacity = 1;
+        int cap = 1;
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.loadFactor = loadFactor <= 0 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.heads = new int[cap];
+        this.mask = cap - 1;
+        this.threshold = (int) (cap * this.loadFactor);
+        int entries = threshold + 1; // size never passes threshold before a resize
+        this.keyBits = new long[entries];
+        this.hash32 = new int[entries];
+        this.values = new int[entries];
+        this.next = new int[entries];
+        this.size = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return heads.length; }
+
+    /** Entry index of the key, or -1. */
+    private int indexOf(long bits, int h) {
+        for (int e = heads[h & mask]; e != 0; e = next[e - 1]) {
+            if (keyBits[e - 1] == bits) return e - 1;
+        }
+        return -1;
+    }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        int i = indexOf(bits, h);
+        if (i >= 0) {
+            values[i] = value;
+            return;
+        }
+        i = size;
+        int b = h & mask;
+        keyBits[i] = bits;
+        hash32[i] = h;
+        values[i] = value;
+        next[i] = heads[b];
+        heads[b] = i + 1;
+        if (++size > threshold) resize();
+    }
+
+    public Integer get(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int i = indexOf(bits, MyHashTable.mix32(bits));
+        return i < 0 ? null : values[i];
+    }
+
+    public int getInt(double key, int missingValue) {
+        long bits = Double.doubleToRawLongBits(key);
+        int i = indexOf(bits, MyHashTable.mix32(bits));
+        return i < 0 ? missingValue : values[i];
+    }
+
+    public boolean containsKey(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        return indexOf(bits, MyHashTable.mix32(bits)) >= 0;
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        int b = h & mask;
+        int prev = 0;
+        int e = heads[b];
+        while (e != 0 && keyBits[e - 1] != bits) {
+            prev = e;
+            e = next[e - 1];
+        }
+        if (e == 0) return false;
+        unlink(b, prev, e);
+
+        // keep entries dense: move the last entry into the hole and repoint the link that referenced it
+        int hole = e - 1, last = size - 1;
+        if (hole != last) {
+            int lb = hash32[last] & mask;
+            if (heads[lb] == last + 1) {
+                heads[lb] = hole + 1;
+            } else {
+                int p = heads[lb];
+                while (next[p - 1] != last + 1) p = next[p - 1];
+                next[p - 1] = hole + 1;
+            }
+            keyBits[hole] = keyBits[last];
+            hash32[hole] = hash32[last];
+            values[hole] = values[last];
+            next[hole] = next[last];
+        }
+        size--;
+        return true;
+    }
+
+    private void unlink(int b, int prev, int e) {
+        if (prev == 0) heads[b] = next[e - 1];
+        else next[prev - 1] = next[e - 1];
+    }
+
+    /** Double the heads, extend the entry arrays (entries keep their index) and relink from the cached hashes. */
+    private void resize() {
+        int newCap = heads.length << 1;
+        this.heads = new int[newCap];
+        this.mask = newCap - 1;
+        this.threshold = (int) (newCap * loadFactor);
+        int entries = threshold + 1;
+        this.keyBits = Arrays.copyOf(keyBits, entries);
+        this.hash32 = Arrays.copyOf(hash32, entries);
+        this.values = Arrays.copyOf(values, entries);
+        this.next = new int[entries];
+
+        for (int i = 0; i < size; i++) {
+            int b = hash32[i] & mask;
+            next[i] = heads[b];
+            heads[b] = i + 1;
+        }
+    }
+
+    public String stats() {
+        int maxChain = 0, totalChain = 0, nonEmpty = 0;
+        for (int b = 0; b < heads.length; b++) {
+            if (heads[b] == 0) continue;
+            nonEmpty++;
+            int len = 0;
+            for (int e = heads[b]; e != 0; e = next[e - 1]) len++;
+            totalChain += len;
+            if (len > maxChain) maxChain = len;
+        }
+        double lf = size / (double) heads.length;
+        double mean = nonEmpty > 0 ? totalChain / (double) nonEmpty : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f",
+                heads.length, size, lf, maxChain, mean);
+    }
+}
@@ -0,0 +1,234 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LockFreeHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+    private static final int TRANSFER_STRIDE = 64;          // buckets claimed per transfer step
+
+    /** Immutable chain node: a chain is only ever changed by CAS-publishing a new head. */
+    private static class Node {
+        final long keyBits;
+        final int hash32;
+        final int value;
+        final Node next;
+
+        Node(long keyBits, int hash32, int value, Node next) {
+            this.keyBits = keyBits;
+            this.hash32 = hash32;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** Head of a bucket whose contents already live in nextTable. */
+    private static final class ForwardingNode extends Node {
+        final Table nextTable;
+
+        ForwardingNode(Table nextTable) {
+            super(0L, 0, 0, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /** Bucket array plus the state of a resize out of it. */
+    private static final class Table {
+        final AtomicReferenceArray<Node> bins;
+        final int mask;
+        final int threshold;
+        volatile Table next;                                     // set once, when a resize starts
+        final AtomicInteger transferIndex = new AtomicInteger(); // next unclaimed bucket
+        final AtomicInteger transferred = new AtomicInteger();   // buckets already forwarded
+
+        Table(int cap, double loadFactor) {
+            this.bins = new AtomicReferenceArray<>(cap);
+            this.mask = cap - 1;
+            this.threshold = (int) (cap * loadFactor);
+        }
+    }
+
+    private static final AtomicReferenceFieldUpdater<Table, Table> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(Table.class, Table.class, "next");
+
+    /*
+     * Non-blocking chaining table. A write copies the chain prefix up to the affected node and CASes the
+     * new head into the bucket; readers walk immutable chains and never block or retry. A resize creates
+     * table.next; every thread that sees it (the initiator and any writer that meets a ForwardingNode)
+     * claims TRANSFER_STRIDE-bucket ranges, copies each bucket into its lo/hi buckets of the next table and
+     * then CASes a ForwardingNode into the old bucket. Writers to a forwarded bucket continue in the next
+     * table; the thread that forwards the last bucket publishes the next table.
+     */
+    private volatile Table table;
+    private final LongAdder count = new LongAdder();
+    private final double loadFactor;
+
+    public LockFreeHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public LockFreeHashTable(int initialCapacity, double loadFactor) {
+        if (initialCapacity < 1) initialCapacity = 1;
+        int cap = 1;
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.loadFactor = loadFactor <= 0 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.table = new Table(cap, this.loadFactor);
+    }
+
+    public int size() { return (int) count.sum(); }
+    public int capacity() { return table.bins.length(); }
+
+    public Integer get(double key) {
+        Node e = findNode(Double.doubleToRawLongBits(key));
+        return e == null ? null : e.value;
+    }
+
+    public int getInt(double key, int missingValue) {
+        Node e = findNode(Double.doubleToRawLongBits(key));
+        return e == null ? missingValue : e.value;
+    }
+
+    public boolean containsKey(double key) {
+        return findNode(Double.doubleToRawLongBits(key)) != null;
+    }
+
+    private Node findNode(long bits) {
+        int h = MyHashTable.mix32(bits);
+        Table t = table;
+        for (;;) {
+            Node head = t.bins.get(h & t.mask);
+            if (head instanceof ForwardingNode) {
+                t = ((ForwardingNode) head).nextTable;
+                continue;
+            }
+            for (Node e = head; e != null; e = e.next) {
+                if (e.keyBits == bits) return e;
+            }
+            return null;
+        }
+    }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        Table t = table;
+        for (;;) {
+            int i = h & t.mask;
+            Node head = t.bins.get(i);
+            if (head instanceof ForwardingNode) {
+                transfer(t);
+                t = ((ForwardingNode) head).nextTable;
+                continue;
+            }
+            Node found = head;
+            while (found != null && found.keyBits != bits) found = found.next;
+            Node replacement;
+            if (found == null) {
+                replacement = new Node(bits, h, value, head);
+            } else if (found.value == value) {
+                return;
+            } else {
+                replacement = copyPrefix(head, found, new Node(bits, h, value, found.next));
+            }
+            if (t.bins.compareAndSet(i, head, replacement)) {
+                if (found == null) {
+                    count.increment();
+                    if (t.next == null && count.sum() > t.threshold) startResize(t);
+                }
+                return;
+            }
+        }
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        Table t = table;
+        for (;;) {
+            int i = h & t.mask;
+            Node head = t.bins.get(i);
+            if (head instanceof ForwardingNode) {
+                transfer(t);
+                t = ((ForwardingNode) head).nextTable;
+                continue;
+            }
+            Node found = head;
+            while (found != null && found.keyBits != bits) found = found.next;
+            if (found == null) return false;
+            if (t.bins.compareAndSet(i, head, copyPrefix(head, found, found.next))) {
+                count.decrement();
+                return true;
+            }
+        }
+    }
+
+    /** Copy of the nodes from head up to (excluding) stop, linked onto tail. */
+    private static Node copyPrefix(Node head, Node stop, Node tail) {
+        if (head == stop) return tail;
+        return new Node(head.keyBits, head.hash32, head.value, copyPrefix(head.next, stop, tail));
+    }
+
+    private void startResize(Table t) {
+        if (t != table) return; // only the published table is resized
+        NEXT.compareAndSet(t, null, new Table(t.bins.length() << 1, loadFactor));
+        transfer(t);
+    }
+
+    /** Helps move buckets of t into t.next until no unclaimed range is left. */
+    private void transfer(Table t) {
+        Table nt = t.next;
+        int n = t.bins.length();
+        ForwardingNode fwd = new ForwardingNode(nt);
+        while (t.transferIndex.get() < n) {
+            int start = t.transferIndex.getAndAdd(TRANSFER_STRIDE);
+            if (start >= n) return;
+            int end = Math.min(n, start + TRANSFER_STRIDE);
+            for (int i = start; i < end; i++) moveBucket(t, nt, i, fwd);
+            if (t.transferred.addAndGet(end - start) == n) table = nt; // last range done: publish
+        }
+    }
+
+    /**
+     * Copies bucket i into lo (i) and hi (i + n) of nt, then forwards it. Nobody writes those two new buckets
+     * before the forward is in place, so a failed CAS (a concurrent writer won) simply rebuilds them.
+     */
+    private static void moveBucket(Table t, Table nt, int i, ForwardingNode fwd) {
+        int n = t.bins.length();
+        for (;;) {
+            Node head = t.bins.get(i);
+            Node lo = null, hi = null;
+            for (Node e = head; e != null; e = e.next) {
+                if ((e.hash32 & n) == 0) lo = new Node(e.keyBits, e.hash32, e.value, lo);
+                else hi = new Node(e.keyBits, e.hash32, e.value, hi);
+            }
+            nt.bins.set(i, lo);
+            nt.bins.set(i + n, hi);
+            if (t.bins.compareAndSet(i, head, fwd)) return;
+        }
+    }
+
+    /** Weakly consistent snapshot of the published table; buckets already forwarded by a running resize are skipped. */
+    public String stats() {
+        Table t = table;
+        int cap = t.bins.length();
+        int maxChain = 0, totalChain = 0, nonEmpty = 0;
+        for (int i = 0; i < cap; i++) {
+            Node head = t.bins.get(i);
+            if (head instanceof ForwardingNode) continue;
+            if (head != null) {
+                nonEmpty++;
+                int len = 0;
+                for (Node c = head; c != null; c = c.next) len++;
+                totalChain += len;
+                if (len > maxChain) maxChain = len;
+            }
+        }
+        int size = size();
+        double lf = size / (double) cap;
+        double mean = nonEmpty > 0 ? totalChain / (double) nonEmpty : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f",
+                cap, size, lf, maxChain, mean);
+    }
+}
@@ -26,13 +26,17 @@ We used base seed of 1234 and derive per-trial seeds as 1234 + trialIndex; the
 same per-trial seed is used for both implementations to ensure a fair comparison.
 */
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 
 public class Main {
     private static final boolean VERBOSE = false; 
+    private static final String CSV_HEADER =
+            "distribution,params,n,workload,impl,avg_time_ns,ops,throughput_ops_per_s,max_chain,mean_chain,load_factor,extra";
 
     public static void main(String[] args) {
         
@@ -50,26 +54,78 @@ public class Main {
         System.out.println("  " + exponential);
 
     
-        File file = new File("benchmark_results.csv");
-        boolean writeHeader = !file.exists() || file.length() == 0;
-        PrintWriter csvWriter;
-        try {
-            csvWriter = new PrintWriter(new FileWriter(file, /*append*/ true));
-            if (writeHeader) {
-                csvWriter.println("distribution,params,n,workload,impl,avg_time_ns,ops,throughput_ops_per_s,max_chain,mean_chain,load_factor");
-                csvWriter.flush();
-            }
-        } catch (IOException e) {
-            return;
-        }
-
         Object[][] distributions = {
                 {"Uniform", uniform},
                 {"Gaussian", gaussian},
                 {"Exponential", exponential}
         };
 
-        String[] workloads = {"build-only", "mixed"};
+        // "java Main concurrent": shared-table mixed workload as the thread count scales
+        if (args.length > 0 && args[0].equals("concurrent")) {
+            runConcurrent(distributions);
+            return;
+        }
+        // "java Main loadfactor": fixed load factors against the auto-tuned one
+        if (args.length > 0 && args[0].equals("loadfactor")) {
+            runLoadFactorSweep(distributions);
+            return;
+        }
+        // "java Main treeify": chained table with and without tree bins on skewed and colliding keys
+        if (args.length > 0 && args[0].equals("treeify")) {
+            runTreeify(exponential);
+            return;
+        }
+        // "java Main adversarial": keys precomputed to collide under the fixed mix, with and without a random seed
+        if (args.length > 0 && args[0].equals("adversarial")) {
+            runAdversarial();
+            return;
+        }
+        // "java Main huge [maxExponent]": streamed build/lookup of 10^6 .. 10^maxExponent keys (default 8)
+        if (args.length > 0 && args[0].equals("huge")) {
+            runHuge(uniform, args.length > 1 ? Integer.parseInt(args[1]) : 8);
+            return;
+        }
+        // "java Main iterate": forEach, cursor and bulk export against HashMap.entrySet() iteration
+        if (args.length > 0 && args[0].equals("iterate")) {
+            runIteration(distributions);
+            return;
+        }
+        // "java Main scan": sequential against parallel stream reductions over the table
+        if (args.length > 0 && args[0].equals("scan")) {
+            runScan(distributions);
+            return;
+        }
+        // "java Main misses": lookups and removes of mostly absent keys, with and without the Bloom filter
+        if (args.length > 0 && args[0].equals("misses")) {
+            runMissHeavy(distributions);
+            return;
+        }
+        // "java Main zipf": skewed gets with the hot-key cache on and off
+        if (args.length > 0 && args[0].equals("zipf")) {
+            runZipf(distributions);
+            return;
+        }
+        // "java Main cache": bounded read-through caches (CLOCK, W-TinyLFU) against an LRU LinkedHashMap on Zipf traffic
+        if (args.length > 0 && args[0].equals("cache")) {
+            runCache(distributions);
+            return;
+        }
+        // "java Main bulkhash": per-key mix32 against the unrolled bulk mix32 used by the batch operations
+        if (args.length > 0 && args[0].equals("bulkhash")) {
+            runBulkHash();
+            return;
+        }
+        // "java Main hashquality": each built-in mixer alone (ns/key, bucket chi-square) and inside MyHashTable
+        if (args.length > 0 && args[0].equals("hashquality")) {
+            runHashQuality(distributions);
+            return;
+        }
+
+        PrintWriter csvWriter = openCsv("benchmark_results.csv");
+        if (csvWriter == null) return;
+
+        String[] workloads = {"build-only", "build-only-batched", "mixed"};
+        String[] impls = {"student", "student-incremental", "student-pooled", "indexed", "segmented", "open", "robinhood", "swiss", "cuckoo", "offheap", "adaptive"};
         double[] exponents = {3.0, 3.5, 4.0, 4.5, 5.0, 5.5, 6.0};
 
         int[] problemSizes = new int[exponents.length];
@@ -92,7 +148,7 @@ public class Main {
                 for (String workload : workloads) {
                     try {
                         
-                        HashTableBenchmark.runBenchmark(distName, distObj, n, workload, csvWriter);
+                        HashTableBenchmark.runBenchmark(distName, distObj, n, workload, impls, csvWriter);
                         done++;
                         if (VERBOSE) {
                             long elapsed = System.currentTimeMillis() - overallStart;
@@ -126,4 +182,331 @@ public class Main {
             System.out.printf("%nTotal execution time: %.1f seconds (%.1f minutes)%n", sec, sec / 60.0);
         }
     }
+
+    /**
+     * Opens a results file for appending, writing the CSV header if it is new; null on I/O failure. A file
+     * that starts with another header (an older column layout) is first moved aside to "<name>.old", so
+     * rows of two layouts never end up under one header.
+     */
+    private static PrintWriter openCsv(String name) {
+        File file = new File(name);
+        try {
+            if (file.length() > 0 && !CSV_HEADER.equals(firstLine(file))) {
+                File old = new File(name + ".old");
+                if ((old.exists() && !old.delete()) || !file.renameTo(old)) return null;
+            }
+            boolean writeHeader = !file.exists() || file.length() == 0;
+            PrintWriter csvWriter = new PrintWriter(new FileWriter(file, /*append*/ true));
+            if (writeHeader) {
+                csvWriter.println(CSV_HEADER);
+                csvWriter.flush();
+            }
+            return csvWriter;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String firstLine(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            return reader.readLine();
+        }
+    }
+
+    private static void runLoadFactorSweep(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("loadfactor_results.csv");
+        if (csvWriter == null) return;
+
+        String[] impls = {"student-lf0.25", "student-lf0.50", "student-lf0.75", "student-lf1.00",
+                "student-lf1.50", "student-lf2.00", "student-auto"};
+        String[] workloads = {"build-only", "mixed"};
+        int[] sizes = {10_000, 100_000, 1_000_000};
+
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                for (String workload : workloads) {
+                    try {
+                        HashTableBenchmark.runBenchmark(distName, distObj, n, workload, impls, csvWriter);
+                    } catch (Exception e) {
+                        if (VERBOSE) {
+                            System.out.println("Error in load factor sweep: " + distName + ", n=" + n + ": " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runTreeify(HashTableBenchmark.ExponentialDistribution exponential) {
+        PrintWriter csvWriter = openCsv("treeify_results.csv");
+        if (csvWriter == null) return;
+
+        Object[][] distributions = {
+                {"Exponential", exponential},
+                {"Clustered", new HashTableBenchmark.ClusteredDistribution(16, 42)}
+        };
+        String[] impls = {"student", "student-notree", "adaptive"};
+        String[] workloads = {"build-only", "mixed"};
+        int[] sizes = {1_000, 3_162, 10_000, 31_623}; // colliding keys make the no-tree runs quadratic
+
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                for (String workload : workloads) {
+                    try {
+                        HashTableBenchmark.runBenchmark(distName, distObj, n, workload, impls, csvWriter);
+                    } catch (Exception e) {
+                        if (VERBOSE) {
+                            System.out.println("Error in treeify benchmark: " + distName + ", n=" + n + ": " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runAdversarial() {
+        PrintWriter csvWriter = openCsv("adversarial_results.csv");
+        if (csvWriter == null) return;
+
+        // every key hashes to bucket 0 of any table up to 2^20 buckets under the default (seed 0) mix
+        HashTableBenchmark.ClusteredDistribution flood = new HashTableBenchmark.ClusteredDistribution(20, 42);
+        String[] impls = {"student", "student-seeded", "student-notree", "student-notree-seeded"};
+        String[] workloads = {"build-only", "mixed"};
+        int[] sizes = {1_000, 3_162, 10_000, 31_623}; // the unseeded no-tree runs are quadratic
+
+        for (int n : sizes) {
+            for (String workload : workloads) {
+                try {
+                    HashTableBenchmark.runBenchmark("Adversarial", flood, n, workload, impls, csvWriter);
+                } catch (Exception e) {
+                    if (VERBOSE) {
+                        System.out.println("Error in adversarial benchmark: n=" + n + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    /** Needs a heap sized for the largest n (roughly 50 bytes per key for the chained tables). */
+    private static void runHuge(HashTableBenchmark.Dist uniform, int maxExponent) {
+        PrintWriter csvWriter = openCsv("huge_results.csv");
+        if (csvWriter == null) return;
+
+        String[] impls = {"segmented", "student"};
+        for (int e = 6; e <= maxExponent; e++) {
+            long n = (long) Math.pow(10, e);
+            try {
+                HashTableBenchmark.runHugeBenchmark("Uniform", uniform, n, impls, csvWriter);
+            } catch (Exception ex) {
+                if (VERBOSE) {
+                    System.out.println("Error in huge benchmark: n=" + n + ": " + ex.getMessage());
+                    ex.printStackTrace();
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runIteration(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("iterate_results.csv");
+        if (csvWriter == null) return;
+
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                try {
+                    HashTableBenchmark.runIterationBenchmark(distName, distObj, n, csvWriter);
+                } catch (Exception e) {
+                    if (VERBOSE) {
+                        System.out.println("Error in iteration benchmark: " + distName + ", n=" + n + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runScan(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("scan_results.csv");
+        if (csvWriter == null) return;
+
+        int[] sizes = {100_000, 1_000_000, 10_000_000};
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                try {
+                    HashTableBenchmark.runScanBenchmark(distName, distObj, n, csvWriter);
+                } catch (Exception e) {
+                    if (VERBOSE) {
+                        System.out.println("Error in scan benchmark: " + distName + ", n=" + n + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runMissHeavy(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("misses_results.csv");
+        if (csvWriter == null) return;
+
+        String[] impls = {"student", "student-bloom"};
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                try {
+                    HashTableBenchmark.runBenchmark(distName, distObj, n, "miss-heavy", impls, csvWriter);
+                } catch (Exception e) {
+                    if (VERBOSE) {
+                        System.out.println("Error in miss-heavy benchmark: " + distName + ", n=" + n + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runZipf(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("zipf_results.csv");
+        if (csvWriter == null) return;
+
+        String[] impls = {"student", "student-hot"};
+        String[] workloads = {"zipf-0.8", "zipf-0.99", "zipf-1.2"};
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                for (String workload : workloads) {
+                    try {
+                        HashTableBenchmark.runBenchmark(distName, distObj, n, workload, impls, csvWriter);
+                    } catch (Exception e) {
+                        if (VERBOSE) {
+                            System.out.println("Error in zipf benchmark: " + distName + ", n=" + n + ": " + e.getMessage());
+                            e.printStackTrace();
+                        }
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runCache(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("cache_results.csv");
+        if (csvWriter == null) return;
+
+        double[] skews = {0.8, 0.99, 1.2};
+        int[] sizes = {100_000, 1_000_000};
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                for (double skew : skews) {
+                    for (int maxEntries : new int[] {n / 100, n / 10}) {
+                        try {
+                            HashTableBenchmark.runCacheBenchmark(distName, distObj, n, skew, maxEntries, csvWriter);
+                        } catch (Exception e) {
+                            if (VERBOSE) {
+                                System.out.println("Error in cache benchmark: " + distName + ", n=" + n + ", skew=" + skew + ": " + e.getMessage());
+                                e.printStackTrace();
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runBulkHash() {
+        PrintWriter csvWriter = openCsv("bulkhash_results.csv");
+        if (csvWriter == null) return;
+
+        for (int n = 1_000; n <= 10_000_000; n *= 10) {
+            try {
+                HashTableBenchmark.runBulkHashBenchmark(n, csvWriter);
+            } catch (Exception e) {
+                if (VERBOSE) {
+                    System.out.println("Error in bulk hash benchmark: n=" + n + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runHashQuality(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("hashquality_results.csv");
+        if (csvWriter == null) return;
+
+        HashMixer.Builtin[] mixers = HashMixer.Builtin.values();
+        String[] impls = new String[mixers.length];
+        for (int i = 0; i < mixers.length; i++) impls[i] = "student-mix-" + mixers[i].name().toLowerCase();
+        String[] workloads = {"build-only", "mixed"};
+        int[] sizes = {10_000, 100_000, 1_000_000};
+
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int n : sizes) {
+                try {
+                    HashTableBenchmark.runHashQualityBenchmark(distName, distObj, n, mixers, csvWriter);
+                    for (String workload : workloads) {
+                        HashTableBenchmark.runBenchmark(distName, distObj, n, workload, impls, csvWriter);
+                    }
+                } catch (Exception e) {
+                    if (VERBOSE) {
+                        System.out.println("Error in hash quality benchmark: " + distName + ", n=" + n + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
+
+    private static void runConcurrent(Object[][] distributions) {
+        PrintWriter csvWriter = openCsv("concurrent_results.csv");
+        if (csvWriter == null) return;
+
+        String[] impls = {"synchronized", "striped", "lockfree", "chm"};
+        int[] threadCounts = {1, 2, 4, 8, 16, 32, 64};
+        int n = 1_000_000;
+
+        for (Object[] dist : distributions) {
+            String distName = (String) dist[0];
+            HashTableBenchmark.Dist distObj = (HashTableBenchmark.Dist) dist[1];
+            for (int threads : threadCounts) {
+                try {
+                    HashTableBenchmark.runConcurrentBenchmark(distName, distObj, n, threads, impls, csvWriter);
+                    if (VERBOSE) System.out.printf("Completed %s with %d threads%n", distName, threads);
+                } catch (Exception e) {
+                    if (VERBOSE) {
+                        System.out.println("Error in concurrent benchmark: " + distName + ", threads=" + threads + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+        csvWriter.close();
+    }
 }
@@ -1,12 +1,39 @@
-public class MyHashTable {
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+public class MyHashTable implements DoubleIntTable {
     private static final double DEFAULT_LOAD_FACTOR = 0.75;
     private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+    private static final int MAXIMUM_CAPACITY = 1 << 30;    // largest power-of-two array length; past it chains just grow
+    private static final int MIGRATION_STEP = 16;           // old buckets moved per operation in incremental mode
+    private static final int BATCH = 64;                    // keys hashed ahead per block in putAll/getAll/removeAll
+    private static final int TREEIFY_THRESHOLD = 8;         // chain length that turns a bucket into a tree
+    private static final int UNTREEIFY_THRESHOLD = 6;       // tree size that turns it back into a chain
+    private static final int MIN_TREEIFY_CAPACITY = 64;     // smaller tables only ever chain
+    private static final int AUTOTUNE_SAMPLE_MASK = 31;     // auto-tuning samples every 32nd lookup
+    private static final int AUTOTUNE_WINDOW = 64;          // samples per load-factor adjustment
+    private static final int BLOOM_BITS_PER_KEY = 10;       // at the size the filter was built for
+    private static final int BLOOM_K = 6;                   // bits set and tested per key
+    private static final int BLOOM_MIN_KEYS = 64;
+
+    // Bits of features: optional behaviour that get/put/remove must honour (see features below).
+    private static final int FEATURE_HASH = 1;      // custom mixer or non-zero hash seed
+    private static final int FEATURE_AUTOTUNE = 2;
+    private static final int FEATURE_BLOOM = 4;
+    private static final int FEATURE_HOT = 8;
+    private static final int FEATURE_TRANSFER = 16; // incremental resize in flight
 
-    /** Separate chaining node with precomputed 32-bit hash. */
+    /** Separate chaining node with precomputed 32-bit hash; key fields are reassigned when recycled. */
     private static class Node {
-        final double key;     // for debug/pretty
-        final long keyBits;   // exact raw bits
-        final int hash32;     // precomputed mixed hash
+        double key;           // for debug/pretty
+        long keyBits;         // exact raw bits
+        int hash32;           // precomputed mixed hash
         int value;
         Node next;
 
@@ -19,93 +46,837 @@ public class MyHashTable {
         }
     }
 
+    /** Entry of a treeified bucket; next is unused. */
+    private static final class TreeNode extends Node {
+        TreeNode left, right;
+        int height = 1;
+
+        TreeNode(double key, int value, long keyBits, int hash32) {
+            super(key, value, keyBits, hash32, null);
+        }
+    }
+
+    /**
+     * Head of a treeified bucket: an AVL tree ordered by (hash32, keyBits), so lookups stay logarithmic even
+     * when many keys share a bucket. The bin itself holds no key; every chain walk checks for it first.
+     */
+    private static final class TreeBin extends Node {
+        TreeNode root;
+        int count;
+
+        TreeBin() {
+            super(0.0, 0, 0L, 0, null);
+        }
+
+        TreeNode find(int h, long bits) {
+            TreeNode t = root;
+            while (t != null) {
+                int c = compare(h, bits, t);
+                if (c == 0) return t;
+                t = c < 0 ? t.left : t.right;
+            }
+            return null;
+        }
+
+        /** Adds a node whose key is absent. */
+        void insert(TreeNode x) {
+            root = insert(root, x);
+            count++;
+        }
+
+        /** Removes the node for a key known to be present. */
+        void remove(int h, long bits) {
+            root = remove(root, h, bits);
+            count--;
+        }
+
+        /** Nodes compared on the search path for the key, hit or miss. */
+        int pathLength(int h, long bits) {
+            int n = 0;
+            for (TreeNode t = root; t != null; ) {
+                n++;
+                int c = compare(h, bits, t);
+                if (c == 0) break;
+                t = c < 0 ? t.left : t.right;
+            }
+            return n;
+        }
+
+        void forEach(DoubleIntConsumer action) {
+            forEach(root, action);
+        }
+
+        private static void forEach(TreeNode t, DoubleIntConsumer action) {
+            for (; t != null; t = t.right) {
+                forEach(t.left, action);
+                action.accept(t.key, t.value);
+            }
+        }
+
+        /** Copies keys and/or values (either array may be null) in tree order from index at; returns the next index. */
+        int export(double[] keys, int[] values, int at) {
+            return export(root, keys, values, at);
+        }
+
+        private static int export(TreeNode t, double[] keys, int[] values, int at) {
+            for (; t != null; t = t.right) {
+                at = export(t.left, keys, values, at);
+                if (keys != null) keys[at] = t.key;
+                if (values != null) values[at] = t.value;
+                at++;
+            }
+            return at;
+        }
+
+        TreeNode first() {
+            TreeNode t = root;
+            if (t != null) while (t.left != null) t = t.left;
+            return t;
+        }
+
+        /** Smallest node ordered after the key (present or not), or null; lets a cursor walk without a stack. */
+        TreeNode higher(int h, long bits) {
+            TreeNode best = null;
+            for (TreeNode t = root; t != null; ) {
+                if (compare(h, bits, t) < 0) {
+                    best = t;
+                    t = t.left;
+                } else {
+                    t = t.right;
+                }
+            }
+            return best;
+        }
+
+        /** Plain chain of fresh nodes in tree order. */
+        Node toChain() {
+            return toChain(root, null);
+        }
+
+        static int compare(int h, long bits, Node e) {
+            return h != e.hash32 ? Integer.compare(h, e.hash32) : Long.compare(bits, e.keyBits);
+        }
+
+        private static TreeNode insert(TreeNode t, TreeNode x) {
+            if (t == null) return x;
+            if (compare(x.hash32, x.keyBits, t) < 0) t.left = insert(t.left, x);
+            else t.right = insert(t.right, x);
+            return balance(t);
+        }
+
+        private static TreeNode remove(TreeNode t, int h, long bits) {
+            int c = compare(h, bits, t);
+            if (c < 0) t.left = remove(t.left, h, bits);
+            else if (c > 0) t.right = remove(t.right, h, bits);
+            else {
+                if (t.left == null) return t.right;
+                if (t.right == null) return t.left;
+                TreeNode m = t.right;
+                while (m.left != null) m = m.left;
+                m.right = removeMin(t.right);
+                m.left = t.left;
+                t = m;
+            }
+            return balance(t);
+        }
+
+        private static TreeNode removeMin(TreeNode t) {
+            if (t.left == null) return t.right;
+            t.left = removeMin(t.left);
+            return balance(t);
+        }
+
+        private static int height(TreeNode t) {
+            return t == null ? 0 : t.height;
+        }
+
+        private static TreeNode balance(TreeNode t) {
+            int diff = height(t.left) - height(t.right);
+            if (diff > 1) {
+                if (height(t.left.left) < height(t.left.right)) t.left = rotateLeft(t.left);
+                return rotateRight(t);
+            }
+            if (diff < -1) {
+                if (height(t.right.right) < height(t.right.left)) t.right = rotateRight(t.right);
+                return rotateLeft(t);
+            }
+            t.height = 1 + Math.max(height(t.left), height(t.right));
+            return t;
+        }
+
+        private static TreeNode rotateRight(TreeNode t) {
+            TreeNode l = t.left;
+            t.left = l.right;
+            l.right = t;
+            t.height = 1 + Math.max(height(t.left), height(t.right));
+            l.height = 1 + Math.max(height(l.left), height(l.right));
+            return l;
+        }
+
+        private static TreeNode rotateLeft(TreeNode t) {
+            TreeNode r = t.right;
+            t.right = r.left;
+            r.left = t;
+            t.height = 1 + Math.max(height(t.left), height(t.right));
+            r.height = 1 + Math.max(height(r.left), height(r.right));
+            return r;
+        }
+
+        private static Node toChain(TreeNode t, Node tail) {
+            if (t == null) return tail;
+            tail = toChain(t.right, tail);
+            return toChain(t.left, new Node(t.key, t.value, t.keyBits, t.hash32, tail));
+        }
+    }
+
     private Node[] buckets;
     private int size;
     private int capacityMask;
-    private final double loadFactor;
+    private double loadFactor;            // the resize load factor; only auto-tuning changes it
+    private final double baseLoadFactor;  // as constructed
     private int threshold;
 
+    // Shrinking: below shrinkThreshold (capacity * shrinkLoadFactor) a remove halves the table, never under
+    // minCapacity (the constructor's capacity). shrinkLoadFactor is kept <= loadFactor / 4, so a halved table
+    // sits at most at loadFactor / 2 and a freshly doubled one at least at 2 * shrinkLoadFactor: no thrashing.
+    private final int minCapacity;
+    private double shrinkLoadFactor;
+    private int shrinkThreshold;
+
+    // Incremental resize: while oldBuckets != null, old buckets [0, transferIndex) have been moved to buckets
+    // and the rest still live in oldBuckets; every put/get/remove moves up to MIGRATION_STEP more.
+    private boolean incrementalResize;
+    private Node[] oldBuckets;
+    private int oldMask;
+    private int transferIndex;
+
+    // Buckets whose chain grows past TREEIFY_THRESHOLD become TreeBins; a resize (or removals down to
+    // UNTREEIFY_THRESHOLD) turns them back into chains, re-treeifying only where the new chain is still long.
+    private boolean treeifyEnabled = true;
+
+    // Node recycling: removed chain nodes are pushed (via next) onto a free list of at most maxPooledNodes
+    // and reused by later inserts. Off (0) by default; tree nodes are never pooled.
+    private int maxPooledNodes;
+    private Node freeList;
+    private int pooledNodes;
+
+    // Load-factor auto-tuning: every 32nd lookup also samples its probe length (nodes inspected). After
+    // AUTOTUNE_WINDOW samples loadFactor is rescaled toward autoTarget within [autoMin, autoMax]. A chained hit
+    // costs about 1 + a/2 probes at load a, so the factor is (target - 1) / (mean - 1), damped to [0.8, 1.25].
+    private boolean autoTune;
+    private double autoTarget, autoMin, autoMax;
+    private int lookups;
+    private long autoProbes;
+    private int autoSamples;
+
+    // Scratch for the batch operations (allocated on first use, heads cleared after each call).
+    private long[] batchBits;
+    private int[] batchHash;
+    private Node[] batchHeads;
+    private long batchTouched; // xor of the head nodes' key bits, stored so the JIT keeps those loads
+
+    // Bloom filter guard (off by default): 512-bit blocks (8 longs, one cache line). A key sets BLOOM_K bits of
+    // the block picked by the high bits of its hash32, at positions a + i*b (mod 512) taken from fragments of
+    // hash32 * golden ratio. get/containsKey/replace/remove (and getAll/removeAll) of a key whose bits are not
+    // all set skip the bucket walk. Sized for twice the entries at build time; rebuilt from the entries when
+    // more keys than that were added, or when removals (whose bits stay set) pass half of the keys in it.
+    private long[] bloom;
+    private int bloomBlocks;
+    private int bloomCapacity;   // keys the filter was sized for
+    private int bloomKeys;       // keys added since the last build, including the build itself
+    private int bloomStale;      // removals since the last build
+    private long bloomRejects;   // lookups and removes answered by the filter alone
+
+    // Hot-key cache (off by default): 2-way set-associative copies of (keyBits, value) for keys found by
+    // get/getInt/containsKey, way 0 holding the most recently used key of its set (picked by the low hash bits).
+    // A hit answers without walking the bucket. Raw bits 0L marks an empty way, so zero keys bypass the cache.
+    // Puts, replace and cursor writes update a cached copy in place; removes drop it.
+    private long[] hotKeys;       // null when off
+    private int[] hotValues;
+    private int hotSetMask;
+    private long hotHits, hotLookups;
+
+    // Key bits -> 32-bit hash. null means the built-in mix32, called statically so the default hot path
+    // keeps no interface dispatch.
+    private final HashMixer mixer;
+
+    // Folded (xor) into the key bits before mixing. 0 by default, so hashes and layouts are reproducible;
+    // a random seed stops callers from precomputing keys that all land in one bucket.
+    private long hashSeed;
+
+    // One bit per optional feature in use (FEATURE_*), kept current by updateFeatures() wherever one is switched.
+    // get/getInt/containsKey/put/remove test only this field; while it is 0 they run the plain chained lookup
+    // with the static mix32 and none of the per-feature checks.
+    private int features;
+
     public MyHashTable() {
         this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
     }
 
     public MyHashTable(int initialCapacity, double loadFactor) {
+        this(initialCapacity, loadFactor, null);
+    }
+
+    /** Table hashing keys with the given mixer (null: SplitMix64, as the other constructors). */
+    public MyHashTable(int initialCapacity, double loadFactor, HashMixer mixer) {
         if (initialCapacity < 1) initialCapacity = 1;
         int cap = 1;
-        while (cap < initialCapacity) cap <<= 1;
+        while (cap < initialCapacity && cap < MAXIMUM_CAPACITY) cap <<= 1;
 
         this.buckets = new Node[cap];
         this.capacityMask = cap - 1;
         this.loadFactor = loadFactor <= 0 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.baseLoadFactor = this.loadFactor;
         this.threshold = (int) (cap * this.loadFactor);
+        this.minCapacity = cap;
+        this.shrinkLoadFactor = this.loadFactor / 4;
+        this.shrinkThreshold = (int) (cap * shrinkLoadFactor);
         this.size = 0;
+        this.mixer = mixer == HashMixer.Builtin.SPLITMIX64 ? null : mixer;
+        updateFeatures();
+    }
+
+    private void updateFeatures() {
+        features = (mixer != null || hashSeed != 0 ? FEATURE_HASH : 0)
+                | (autoTune ? FEATURE_AUTOTUNE : 0)
+                | (bloom != null ? FEATURE_BLOOM : 0)
+                | (hotKeys != null ? FEATURE_HOT : 0)
+                | (oldBuckets != null ? FEATURE_TRANSFER : 0);
     }
 
     public int size() { return size; }
     public int capacity() { return buckets.length; }
 
+    /** Spread each resize over later operations instead of rehashing everything in one put. */
+    public void setIncrementalResize(boolean enabled) {
+        this.incrementalResize = enabled;
+        if (!enabled) finishTransfer();
+    }
+
+    public boolean isIncrementalResize() { return incrementalResize; }
+
+    /** True while an incremental resize still has buckets left in the old array. */
+    public boolean isResizing() { return oldBuckets != null; }
+
+    /** Turn long chains into balanced trees (on by default); existing trees are kept until the next resize. */
+    public void setTreeifyEnabled(boolean enabled) { this.treeifyEnabled = enabled; }
+
+    public boolean isTreeifyEnabled() { return treeifyEnabled; }
+
+    /**
+     * Seed xored into every key's bits before mixing; an explicit seed keeps the table deterministic.
+     * It only scatters colliding keys under a non-linear mixer (not HashMixer.Builtin.IDENTITY).
+     * Only allowed while the table is empty, since it changes every hash.
+     * @throws IllegalStateException if the table holds entries
+     */
+    public void setHashSeed(long seed) {
+        if (size != 0) throw new IllegalStateException("hash seed can only change while the table is empty");
+        this.hashSeed = seed;
+        updateFeatures();
+        if (bloom != null) rebuildBloom(); // drops bits left by removed keys under the old seed
+        if (hotKeys != null) java.util.Arrays.fill(hotKeys, 0L);
+    }
+
+    /** Per-instance random seed, against keys chosen to collide under the fixed mix (see setHashSeed). */
+    public void randomizeHashSeed() {
+        long seed;
+        do {
+            seed = ThreadLocalRandom.current().nextLong();
+        } while (seed == 0);
+        setHashSeed(seed);
+    }
+
+    public long getHashSeed() { return hashSeed; }
+
+    /**
+     * Low-water load factor that triggers a shrink (default loadFactor / 4, also the maximum, or the auto-tuning
+     * minimum / 4 while auto-tuning); <= 0 never shrinks.
+     */
+    public void setShrinkLoadFactor(double f) {
+        this.shrinkLoadFactor = f <= 0 ? 0 : Math.min(f, (autoTune ? autoMin : loadFactor) / 4);
+        this.shrinkThreshold = (int) (buckets.length * shrinkLoadFactor);
+    }
+
+    public double getShrinkLoadFactor() { return shrinkLoadFactor; }
+
+    /**
+     * Let sampled lookups steer the resize load factor within [minLoadFactor, maxLoadFactor] so that gets
+     * average targetMeanProbe nodes: a lower target buys speed with memory, a higher one the reverse.
+     */
+    public void enableLoadFactorAutoTune(double targetMeanProbe, double minLoadFactor, double maxLoadFactor) {
+        if (!(targetMeanProbe > 1) || !(minLoadFactor > 0) || minLoadFactor > maxLoadFactor) {
+            throw new IllegalArgumentException("need targetMeanProbe > 1 and 0 < minLoadFactor <= maxLoadFactor");
+        }
+        this.autoTune = true;
+        updateFeatures();
+        this.autoTarget = targetMeanProbe;
+        this.autoMin = minLoadFactor;
+        this.autoMax = maxLoadFactor;
+        this.autoProbes = 0;
+        this.autoSamples = 0;
+        this.shrinkLoadFactor = Math.min(shrinkLoadFactor, minLoadFactor / 4);
+        applyLoadFactor(Math.max(minLoadFactor, Math.min(maxLoadFactor, loadFactor)));
+    }
+
+    /** Back to the constructor's load factor. */
+    public void disableLoadFactorAutoTune() {
+        this.autoTune = false;
+        updateFeatures();
+        this.shrinkLoadFactor = Math.min(shrinkLoadFactor, baseLoadFactor / 4);
+        applyLoadFactor(baseLoadFactor);
+    }
+
+    public boolean isLoadFactorAutoTune() { return autoTune; }
+
+    /** Load factor that currently triggers a resize. */
+    public double getLoadFactor() { return loadFactor; }
+
+    private void applyLoadFactor(double lf) {
+        this.loadFactor = lf;
+        this.threshold = (int) (buckets.length * lf);
+        this.shrinkThreshold = (int) (buckets.length * shrinkLoadFactor);
+        while (size > threshold && buckets.length < MAXIMUM_CAPACITY) resize();
+    }
+
+    private void sampleProbe(double key) {
+        autoProbes += probeLength(key);
+        if (++autoSamples < AUTOTUNE_WINDOW) return;
+        double mean = autoProbes / (double) AUTOTUNE_WINDOW;
+        autoProbes = 0;
+        autoSamples = 0;
+        double scale = Math.max(0.8, Math.min(1.25, (autoTarget - 1) / Math.max(mean - 1, 1e-3)));
+        applyLoadFactor(Math.max(autoMin, Math.min(autoMax, loadFactor * scale)));
+    }
+
+    /** Shrinks to the smallest table that holds the current entries under the load factor and drops pooled nodes. */
+    public void trimToSize() {
+        int cap = 1;
+        while ((int) (cap * loadFactor) < size && cap < MAXIMUM_CAPACITY) cap <<= 1;
+        finishTransfer();
+        if (cap != buckets.length) rehash(cap);
+        freeList = null;
+        pooledNodes = 0;
+    }
+
+    /** Keep up to max removed nodes for reuse by later inserts; 0 disables recycling and drops the pool. */
+    public void setNodePoolSize(int max) {
+        this.maxPooledNodes = Math.max(0, max);
+        while (pooledNodes > maxPooledNodes) {
+            freeList = freeList.next;
+            pooledNodes--;
+        }
+    }
+
+    public int getNodePoolSize() { return maxPooledNodes; }
+
     /** SplitMix64-style mix then fold to 32-bit. Better distribution than trivial xors. */
-    private static int mix32(long z) {
+    static int mix32(long z) {
+        z = mix64(z);
+        return (int) (z ^ (z >>> 32));
+    }
+
+    /** The full 64-bit SplitMix64 finalizer, for tables that index more than 32 hash bits. */
+    static long mix64(long z) {
         z += 0x9E3779B97F4A7C15L;
         z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
         z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
-        z = z ^ (z >>> 31);
-        return (int) (z ^ (z >>> 32));
+        return z ^ (z >>> 31);
     }
 
-    public void put(double key, int value) {
-        long bits = Double.doubleToRawLongBits(key);
-        int h = mix32(bits);
-        int index = h & capacityMask;
+    private int hash(long bits) {
+        bits ^= hashSeed;
+        return mixer == null ? mix32(bits) : mixer.hash(bits);
+    }
 
-        for (Node cur = buckets[index]; cur != null; cur = cur.next) {
-            if (cur.keyBits == bits) {
-                cur.value = value;
-                return;
-            }
+    public HashMixer getMixer() { return mixer == null ? HashMixer.Builtin.SPLITMIX64 : mixer; }
+
+    /**
+     * Bulk mix32: out[i] = mix32(bits[i] ^ seed) for i < len. Four keys per iteration keep four independent
+     * multiply chains in flight (the scalar stand-in for 4-lane LongVector hashing, which Java 8 lacks).
+     */
+    static void mix32(long[] bits, long seed, int[] out, int len) {
+        int i = 0;
+        for (int end = len - 3; i < end; i += 4) {
+            long z0 = (bits[i] ^ seed) + 0x9E3779B97F4A7C15L;
+            long z1 = (bits[i + 1] ^ seed) + 0x9E3779B97F4A7C15L;
+            long z2 = (bits[i + 2] ^ seed) + 0x9E3779B97F4A7C15L;
+            long z3 = (bits[i + 3] ^ seed) + 0x9E3779B97F4A7C15L;
+            z0 = (z0 ^ (z0 >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z1 = (z1 ^ (z1 >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z2 = (z2 ^ (z2 >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z3 = (z3 ^ (z3 >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z0 = (z0 ^ (z0 >>> 27)) * 0x94D049BB133111EBL;
+            z1 = (z1 ^ (z1 >>> 27)) * 0x94D049BB133111EBL;
+            z2 = (z2 ^ (z2 >>> 27)) * 0x94D049BB133111EBL;
+            z3 = (z3 ^ (z3 >>> 27)) * 0x94D049BB133111EBL;
+            z0 ^= z0 >>> 31;
+            z1 ^= z1 >>> 31;
+            z2 ^= z2 >>> 31;
+            z3 ^= z3 >>> 31;
+            out[i] = (int) (z0 ^ (z0 >>> 32));
+            out[i + 1] = (int) (z1 ^ (z1 >>> 32));
+            out[i + 2] = (int) (z2 ^ (z2 >>> 32));
+            out[i + 3] = (int) (z3 ^ (z3 >>> 32));
         }
-        buckets[index] = new Node(key, value, bits, h, buckets[index]);
-        if (++size > threshold) resize();
+        for (; i < len; i++) out[i] = mix32(bits[i] ^ seed);
+    }
+
+    /** Bucket array holding hash h: the old array if its old bucket has not been moved yet. */
+    private Node[] tableFor(int h) {
+        return oldBuckets != null && (h & oldMask) >= transferIndex ? oldBuckets : buckets;
+    }
+
+    public void put(double key, int value) {
+        putNode(key, value, false);
+    }
+
+    /**
+     * Inserts only if the key is absent, with a single probe.
+     * @return true if the mapping was added, false if the key was already present (value left unchanged)
+     */
+    public boolean putIfAbsent(double key, int value) {
+        return putNode(key, value, true) == null;
+    }
+
+    /**
+     * Overwrites the value only if the key is present, with a single probe.
+     * @return true if the key was present and its value replaced
+     */
+    public boolean replace(double key, int value) {
+        Node e = findNode(key);
+        if (e == null) return false;
+        if (hotKeys != null) hotRefresh(e.keyBits, e.hash32, value);
+        e.value = value;
+        return true;
     }
 
     public Integer get(double key) {
+        if (features != 0 && hotKeys != null && key != 0.0) {
+            int slot = hotFind(key);
+            return slot < 0 ? null : hotValues[slot];
+        }
+        Node e = findNode(key);
+        return e == null ? null : e.value;
+    }
+
+    public int getInt(double key, int missingValue) {
+        if (features != 0 && hotKeys != null && key != 0.0) {
+            int slot = hotFind(key);
+            return slot < 0 ? missingValue : hotValues[slot];
+        }
+        Node e = findNode(key);
+        return e == null ? missingValue : e.value;
+    }
+
+    public boolean containsKey(double key) {
+        if (features != 0 && hotKeys != null && key != 0.0) return hotFind(key) >= 0;
+        return findNode(key) != null;
+    }
+
+    private Node findNode(double key) {
         long bits = Double.doubleToRawLongBits(key);
-        int h = mix32(bits);
-        int index = h & capacityMask;
+        if (features == 0) {
+            int h = mix32(bits);
+            return findIn(buckets[h & capacityMask], bits, h);
+        }
+        return findNode(key, bits, hash(bits));
+    }
 
-        for (Node cur = buckets[index]; cur != null; cur = cur.next) {
-            if (cur.keyBits == bits) return cur.value;
+    private Node findNode(double key, long bits, int h) {
+        if (oldBuckets != null) migrate(MIGRATION_STEP);
+        if (autoTune && (++lookups & AUTOTUNE_SAMPLE_MASK) == 0) sampleProbe(key);
+        if (bloom != null && !bloomMayContain(h)) return null;
+        Node[] tab = tableFor(h);
+        return findIn(tab[h & (tab.length - 1)], bits, h);
+    }
+
+    /** Existing node, or null after adding one (size and resize handled here). */
+    private Node putNode(double key, int value, boolean onlyIfAbsent) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (features == 0) {
+            int h = mix32(bits);
+            Node e = putInBucket(buckets, h & capacityMask, key, value, bits, h, onlyIfAbsent);
+            if (e == null && ++size > threshold) resize();
+            return e;
         }
-        return null;
+        if (oldBuckets != null) migrate(MIGRATION_STEP);
+        int h = hash(bits);
+        if (hotKeys != null && !onlyIfAbsent) hotRefresh(bits, h, value); // putIfAbsent never changes a cached key
+        Node[] tab = tableFor(h);
+        Node e = putInBucket(tab, h & (tab.length - 1), key, value, bits, h, onlyIfAbsent);
+        if (e == null) {
+            if (bloom != null) bloomAdd(h);
+            if (++size > threshold) resize();
+        }
+        return e;
     }
 
     public boolean remove(double key) {
         long bits = Double.doubleToRawLongBits(key);
-        int h = mix32(bits);
-        int index = h & capacityMask;
+        if (features == 0) {
+            int h = mix32(bits);
+            if (!removeFromBucket(buckets, h & capacityMask, bits, h)) return false;
+            if (--size < shrinkThreshold) shrink();
+            return true;
+        }
+        if (oldBuckets != null) migrate(MIGRATION_STEP);
+        int h = hash(bits);
+        if (bloom != null && !bloomMayContain(h)) return false;
+        if (hotKeys != null) hotInvalidate(bits, h);
+        Node[] tab = tableFor(h);
+        if (!removeFromBucket(tab, h & (tab.length - 1), bits, h)) return false;
+        if (bloom != null) bloomRemoved();
+        if (--size < shrinkThreshold) shrink();
+        return true;
+    }
+
+    // ===== Bucket primitives (chain or TreeBin) =====
+
+    private static Node findIn(Node head, long bits, int h) {
+        if (head instanceof TreeBin) return ((TreeBin) head).find(h, bits);
+        for (Node cur = head; cur != null; cur = cur.next) {
+            if (cur.keyBits == bits) return cur;
+        }
+        return null;
+    }
 
-        Node cur = buckets[index], prev = null;
-        while (cur != null) {
+    /** Updates the key's node (unless onlyIfAbsent) and returns it, or adds a node and returns null. */
+    private Node putInBucket(Node[] tab, int index, double key, int value, long bits, int h, boolean onlyIfAbsent) {
+        Node head = tab[index];
+        if (head instanceof TreeBin) {
+            TreeBin bin = (TreeBin) head;
+            TreeNode e = bin.find(h, bits);
+            if (e == null) {
+                bin.insert(new TreeNode(key, value, bits, h));
+            } else if (!onlyIfAbsent) {
+                e.value = value;
+            }
+            return e;
+        }
+        int chainLength = 0;
+        for (Node cur = head; cur != null; cur = cur.next, chainLength++) {
             if (cur.keyBits == bits) {
-                if (prev == null) buckets[index] = cur.next;
+                if (!onlyIfAbsent) cur.value = value;
+                return cur;
+            }
+        }
+        tab[index] = newNode(key, value, bits, h, head);
+        if (chainLength >= TREEIFY_THRESHOLD) treeifyBin(tab, index);
+        return null;
+    }
+
+    private boolean removeFromBucket(Node[] tab, int index, long bits, int h) {
+        Node head = tab[index];
+        if (head instanceof TreeBin) {
+            TreeBin bin = (TreeBin) head;
+            if (bin.find(h, bits) == null) return false;
+            bin.remove(h, bits);
+            if (bin.count <= UNTREEIFY_THRESHOLD) tab[index] = bin.toChain();
+            return true;
+        }
+        for (Node cur = head, prev = null; cur != null; prev = cur, cur = cur.next) {
+            if (cur.keyBits == bits) {
+                if (prev == null) tab[index] = cur.next;
                 else prev.next = cur.next;
-                size--;
+                recycle(cur);
                 return true;
             }
-            prev = cur;
-            cur = cur.next;
         }
         return false;
     }
 
-    /** Double capacity; reuse nodes; bucket index= node.hash32 & newMask (no recompute). */
+    /** A pooled node reinitialised for the key, or a fresh one. */
+    private Node newNode(double key, int value, long bits, int h, Node next) {
+        Node e = freeList;
+        if (e == null) return new Node(key, value, bits, h, next);
+        freeList = e.next;
+        pooledNodes--;
+        e.key = key;
+        e.keyBits = bits;
+        e.hash32 = h;
+        e.value = value;
+        e.next = next;
+        return e;
+    }
+
+    private void recycle(Node e) {
+        if (pooledNodes >= maxPooledNodes) return;
+        e.next = freeList;
+        freeList = e;
+        pooledNodes++;
+    }
+
+    /** Adds a node whose key is absent from the bucket, without checking the chain length. */
+    private static void link(Node[] tab, int index, Node node) {
+        Node head = tab[index];
+        if (head instanceof TreeBin) {
+            ((TreeBin) head).insert(new TreeNode(node.key, node.value, node.keyBits, node.hash32));
+        } else {
+            node.next = head;
+            tab[index] = node;
+        }
+    }
+
+    /** Replaces the chain at index with a TreeBin when enabled and the table is large enough. */
+    private void treeifyBin(Node[] tab, int index) {
+        if (!treeifyEnabled || tab.length < MIN_TREEIFY_CAPACITY || tab[index] instanceof TreeBin) return;
+        TreeBin bin = new TreeBin();
+        for (Node cur = tab[index]; cur != null; cur = cur.next) {
+            bin.insert(new TreeNode(cur.key, cur.value, cur.keyBits, cur.hash32));
+        }
+        tab[index] = bin;
+    }
+
+    private static int chainLength(Node head) {
+        if (head instanceof TreeBin) return ((TreeBin) head).count;
+        int len = 0;
+        for (Node c = head; c != null; c = c.next) len++;
+        return len;
+    }
+
+    // ===== Batch operations =====
+    // Each block of BATCH keys is handled in two passes: the first hashes every key, loads its bucket head and
+    // touches the head node's key bits, the second walks the chains. Those loads are independent of each
+    // other, so their cache misses (slot and node) overlap instead of each lookup waiting for the previous
+    // one. A pending incremental resize is finished first so bucket positions stay fixed for the whole call.
+
+    public void putAll(double[] keys, int[] values) {
+        if (values.length < keys.length) throw new IllegalArgumentException("values shorter than keys");
+        finishTransfer();
+        prepareBatch();
+        for (int from = 0; from < keys.length; from += BATCH) {
+            int len = Math.min(BATCH, keys.length - from);
+            // grows through the same doublings as one-by-one puts, just before the block instead of inside it
+            ensureCapacity(size + len);
+            hashBlock(keys, from, len);
+            Node[] tab = buckets;
+            int mask = capacityMask;
+            for (int j = 0; j < len; j++) { // bucket re-read: earlier puts may have prepended or treeified
+                int h = batchHash[j];
+                if (hotKeys != null) hotRefresh(batchBits[j], h, values[from + j]);
+                if (putInBucket(tab, h & mask, keys[from + j], values[from + j], batchBits[j], h, false) == null) {
+                    if (bloom != null) bloomAdd(h);
+                    size++;
+                }
+            }
+        }
+        java.util.Arrays.fill(batchHeads, null);
+    }
+
+    public void getAll(double[] keys, int[] out, int missingValue) {
+        if (out.length < keys.length) throw new IllegalArgumentException("out shorter than keys");
+        finishTransfer();
+        prepareBatch();
+        for (int from = 0; from < keys.length; from += BATCH) {
+            int len = Math.min(BATCH, keys.length - from);
+            hashBlock(keys, from, len);
+            for (int j = 0; j < len; j++) {
+                Node e = bloom != null && !bloomMayContain(batchHash[j]) ? null : findIn(batchHeads[j], batchBits[j], batchHash[j]);
+                out[from + j] = e == null ? missingValue : e.value;
+            }
+        }
+        java.util.Arrays.fill(batchHeads, null);
+    }
+
+    public int removeAll(double[] keys) {
+        finishTransfer();
+        prepareBatch();
+        int removed = 0;
+        for (int from = 0; from < keys.length; from += BATCH) {
+            int len = Math.min(BATCH, keys.length - from);
+            hashBlock(keys, from, len);
+            Node[] tab = buckets;
+            int mask = capacityMask;
+            for (int j = 0; j < len; j++) {
+                int h = batchHash[j];
+                if (bloom != null && !bloomMayContain(h)) continue;
+                if (hotKeys != null) hotInvalidate(batchBits[j], h);
+                if (removeFromBucket(tab, h & mask, batchBits[j], h)) {
+                    if (bloom != null) bloomRemoved();
+                    size--;
+                    removed++;
+                }
+            }
+        }
+        java.util.Arrays.fill(batchHeads, null);
+        while (size < shrinkThreshold && buckets.length > minCapacity) shrink();
+        return removed;
+    }
+
+    private void prepareBatch() {
+        if (batchBits == null) {
+            batchBits = new long[BATCH];
+            batchHash = new int[BATCH];
+            batchHeads = new Node[BATCH];
+        }
+    }
+
+    /** Pass one: raw bits, hash and bucket head for keys[from, from + len); the head nodes are touched too. */
+    private void hashBlock(double[] keys, int from, int len) {
+        for (int j = 0; j < len; j++) batchBits[j] = Double.doubleToRawLongBits(keys[from + j]);
+        if (mixer == null) mix32(batchBits, hashSeed, batchHash, len);
+        else mixer.hashAll(batchBits, hashSeed, batchHash, len);
+        Node[] tab = buckets;
+        int mask = capacityMask;
+        long touched = 0;
+        for (int j = 0; j < len; j++) {
+            Node head = tab[batchHash[j] & mask];
+            batchHeads[j] = head;
+            if (head != null) touched ^= head.keyBits;
+        }
+        batchTouched = touched;
+    }
+
+    /** Grows (all at once) until expected entries fit under the threshold. */
+    private void ensureCapacity(int expected) {
+        int cap = buckets.length;
+        while (expected > (int) (cap * loadFactor) && cap < MAXIMUM_CAPACITY) cap <<= 1;
+        if (cap != buckets.length) rehash(cap);
+    }
+
+    /**
+     * Double capacity; in incremental mode the nodes are moved by later operations. At MAXIMUM_CAPACITY it
+     * stops growing (as HashMap does): the threshold is lifted and the load factor rises instead.
+     */
     private void resize() {
+        if (buckets.length >= MAXIMUM_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        resize(buckets.length << 1);
+    }
+
+    /** Halve capacity (not below minCapacity), incrementally when that mode is on. */
+    private void shrink() {
+        if (buckets.length > minCapacity) resize(buckets.length >>> 1);
+    }
+
+    private void resize(int newCap) {
+        if (incrementalResize) {
+            finishTransfer(); // a pending incremental resize completes before the next one starts
+            startTransfer(newCap);
+        } else {
+            rehash(newCap);
+        }
+    }
+
+    /**
+     * Resize in one go: plain chains are relinked in a single pass with no per-node tree checks; tree
+     * buckets, if any, are then unpacked by migrate once the moved chains have been cleared from old.
+     */
+    private void rehash(int newCap) {
+        finishTransfer();
         Node[] old = this.buckets;
-        int newCap = old.length << 1;
-        Node[] neo = new Node[newCap];
-        int newMask = newCap - 1;
+        startTransfer(newCap);
+        Node[] neo = this.buckets;
+        int newMask = this.capacityMask;
+        boolean trees = false;
 
         for (Node head : old) {
+            if (head instanceof TreeBin) {
+                trees = true;
+                continue;
+            }
             Node cur = head;
             while (cur != null) {
                 Node nxt = cur.next;
@@ -115,25 +886,564 @@ public class MyHashTable {
                 cur = nxt;
             }
         }
-        this.buckets = neo;
-        this.capacityMask = newMask;
+        if (trees) {
+            for (int i = 0; i < old.length; i++) {
+                if (!(old[i] instanceof TreeBin)) old[i] = null;
+            }
+            finishTransfer();
+        } else {
+            oldBuckets = null;
+            updateFeatures();
+        }
+    }
+
+    private void startTransfer(int newCap) {
+        this.oldBuckets = this.buckets;
+        this.oldMask = this.capacityMask;
+        this.transferIndex = 0;
+        this.buckets = new Node[newCap];
+        this.capacityMask = newCap - 1;
         this.threshold = (int) (newCap * loadFactor);
+        this.shrinkThreshold = (int) (newCap * shrinkLoadFactor);
+        updateFeatures();
+    }
+
+    /**
+     * Move up to count old buckets; reuse chain nodes; bucket index= node.hash32 & newMask (no recompute).
+     * A tree bucket is unpacked into a chain; a destination it feeds is re-treeified only if it grows long again.
+     */
+    private void migrate(int count) {
+        Node[] old = this.oldBuckets;
+        Node[] neo = this.buckets;
+        int newMask = this.capacityMask;
+        int end = Math.min(old.length, transferIndex + count);
+
+        for (int i = transferIndex; i < end; i++) {
+            Node cur = old[i];
+            old[i] = null;
+            boolean wasTree = cur instanceof TreeBin;
+            if (wasTree) cur = ((TreeBin) cur).toChain();
+            while (cur != null) {
+                Node nxt = cur.next;
+                int idx = cur.hash32 & newMask;
+                link(neo, idx, cur);
+                if (wasTree && chainLength(neo[idx]) > TREEIFY_THRESHOLD) treeifyBin(neo, idx);
+                cur = nxt;
+            }
+        }
+        transferIndex = end;
+        if (end == old.length) {
+            oldBuckets = null;
+            updateFeatures();
+        }
+    }
+
+    private void finishTransfer() {
+        if (oldBuckets != null) migrate(oldBuckets.length);
+    }
+
+    // ===== Bloom filter =====
+
+    /** Consult a Bloom filter before walking a bucket for get/containsKey/replace/remove; off by default. */
+    public void setBloomFilterEnabled(boolean enabled) {
+        if (enabled) rebuildBloom();
+        else bloom = null;
+        updateFeatures();
+    }
+
+    public boolean isBloomFilterEnabled() { return bloom != null; }
+
+    /** Lookups and removes the filter has answered "absent" without touching a bucket. */
+    public long getBloomRejects() { return bloomRejects; }
+
+    private boolean bloomMayContain(int h) {
+        long[] f = bloom;
+        int base = (int) (((h & 0xFFFFFFFFL) * bloomBlocks) >>> 32) << 3;
+        int g = h * 0x9E3779B9;
+        int a = g >>> 23, b = (g >>> 14) | 1;
+        for (int i = 0; i < BLOOM_K; i++, a += b) {
+            if ((f[base + ((a >>> 6) & 7)] & (1L << a)) == 0) {
+                bloomRejects++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void bloomSet(int h) {
+        long[] f = bloom;
+        int base = (int) (((h & 0xFFFFFFFFL) * bloomBlocks) >>> 32) << 3;
+        int g = h * 0x9E3779B9;
+        int a = g >>> 23, b = (g >>> 14) | 1;
+        for (int i = 0; i < BLOOM_K; i++, a += b) f[base + ((a >>> 6) & 7)] |= 1L << a;
+    }
+
+    private void bloomAdd(int h) {
+        bloomSet(h);
+        if (++bloomKeys > bloomCapacity) rebuildBloom();
+    }
+
+    private void bloomRemoved() {
+        if (++bloomStale * 2 > bloomKeys && bloomKeys > BLOOM_MIN_KEYS) rebuildBloom();
+    }
+
+    /** Fresh filter for twice the current entries, filled from every entry (both arrays during a resize). */
+    private void rebuildBloom() {
+        bloomCapacity = Math.max(BLOOM_MIN_KEYS, 2 * (size + 1));
+        bloomBlocks = (int) Math.min(1 << 24, ((long) bloomCapacity * BLOOM_BITS_PER_KEY + 511) >>> 9);
+        bloom = new long[bloomBlocks << 3];
+        bloomKeys = 0;
+        bloomStale = 0;
+        bloomFill(buckets, 0);
+        if (oldBuckets != null) bloomFill(oldBuckets, transferIndex);
+    }
+
+    /** Sets the cached hash32 of every entry from bucket from on, tree bins included (no rehashing). */
+    private void bloomFill(Node[] tab, int from) {
+        for (int i = from; i < tab.length; i++) {
+            Node head = tab[i];
+            if (head instanceof TreeBin) {
+                TreeBin bin = (TreeBin) head;
+                for (TreeNode t = bin.first(); t != null; t = bin.higher(t.hash32, t.keyBits)) bloomSet(t.hash32);
+                bloomKeys += bin.count;
+            } else {
+                for (Node c = head; c != null; c = c.next) {
+                    bloomSet(c.hash32);
+                    bloomKeys++;
+                }
+            }
+        }
+    }
+
+    // ===== Hot-key cache =====
+
+    /** Cache about this many (key, value) pairs in front of get (rounded up to a power of two); 0 turns it off. */
+    public void setHotCacheSize(int entries) {
+        if (entries <= 0) {
+            hotKeys = null;
+            hotValues = null;
+            updateFeatures();
+            return;
+        }
+        int sets = 1;
+        while (sets * 2 < entries) sets <<= 1;
+        hotKeys = new long[sets * 2];
+        hotValues = new int[sets * 2];
+        hotSetMask = sets - 1;
+        hotHits = 0;
+        hotLookups = 0;
+        updateFeatures();
+    }
+
+    public int getHotCacheSize() { return hotKeys == null ? 0 : hotKeys.length; }
+
+    /** Fraction of cached lookups answered by the hot cache since it was sized. */
+    public double getHotCacheHitRate() { return hotLookups == 0 ? 0.0 : hotHits / (double) hotLookups; }
+
+    /** Slot of key (not +0.0) in the hot cache, filled from the table on a miss; -1 if the key is absent. */
+    private int hotFind(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = hash(bits);
+        int i = (h & hotSetMask) << 1;
+        hotLookups++;
+        if (hotKeys[i] == bits) {
+            hotHits++;
+            return i;
+        }
+        if (hotKeys[i + 1] == bits) { // promote to way 0
+            long k = hotKeys[i];
+            int v = hotValues[i];
+            hotKeys[i] = bits;
+            hotValues[i] = hotValues[i + 1];
+            hotKeys[i + 1] = k;
+            hotValues[i + 1] = v;
+            hotHits++;
+            return i;
+        }
+        Node e = findNode(key, bits, h);
+        if (e == null) return -1;
+        hotKeys[i + 1] = hotKeys[i];
+        hotValues[i + 1] = hotValues[i];
+        hotKeys[i] = bits;
+        hotValues[i] = e.value;
+        return i;
+    }
+
+    /** New value for the key's cached copy, if it has one. */
+    private void hotRefresh(long bits, int h, int value) {
+        if (bits == 0L) return;
+        int i = (h & hotSetMask) << 1;
+        if (hotKeys[i] == bits) hotValues[i] = value;
+        else if (hotKeys[i + 1] == bits) hotValues[i + 1] = value;
+    }
+
+    private void hotInvalidate(long bits, int h) {
+        if (bits == 0L) return;
+        int i = (h & hotSetMask) << 1;
+        if (hotKeys[i] == bits) {
+            hotKeys[i] = hotKeys[i + 1];
+            hotValues[i] = hotValues[i + 1];
+            hotKeys[i + 1] = 0L;
+        } else if (hotKeys[i + 1] == bits) {
+            hotKeys[i + 1] = 0L;
+        }
+    }
+
+    // ===== Iteration =====
+
+    /** Calls action for every entry, in bucket order; allocates nothing. The action must not modify the table. */
+    public void forEach(DoubleIntConsumer action) {
+        forEachIn(buckets, 0, action);
+        if (oldBuckets != null) forEachIn(oldBuckets, transferIndex, action);
+    }
+
+    private static void forEachIn(Node[] tab, int from, DoubleIntConsumer action) {
+        for (int i = from; i < tab.length; i++) {
+            Node head = tab[i];
+            if (head instanceof TreeBin) {
+                ((TreeBin) head).forEach(action);
+            } else {
+                for (Node c = head; c != null; c = c.next) action.accept(c.key, c.value);
+            }
+        }
+    }
+
+    /**
+     * Copies every key into keys[0, size()) in forEach order.
+     * @return the number of keys copied (size())
+     * @throws IllegalArgumentException if keys is shorter than size()
+     */
+    public int exportKeys(double[] keys) {
+        if (keys.length < size) throw new IllegalArgumentException("keys.length < size()");
+        return export(keys, null);
+    }
+
+    /**
+     * Copies every value into values[0, size()), in the same order as exportKeys on an unchanged table.
+     * @return the number of values copied (size())
+     * @throws IllegalArgumentException if values is shorter than size()
+     */
+    public int exportValues(int[] values) {
+        if (values.length < size) throw new IllegalArgumentException("values.length < size()");
+        return export(null, values);
+    }
+
+    private int export(double[] keys, int[] values) {
+        int n = exportIn(buckets, 0, keys, values, 0);
+        if (oldBuckets != null) n = exportIn(oldBuckets, transferIndex, keys, values, n);
+        return n;
+    }
+
+    private static int exportIn(Node[] tab, int from, double[] keys, int[] values, int at) {
+        for (int i = from; i < tab.length; i++) {
+            Node head = tab[i];
+            if (head instanceof TreeBin) {
+                at = ((TreeBin) head).export(keys, values, at);
+            } else {
+                for (Node c = head; c != null; c = c.next) {
+                    if (keys != null) keys[at] = c.key;
+                    if (values != null) values[at] = c.value;
+                    at++;
+                }
+            }
+        }
+        return at;
+    }
+
+    /** A new cursor before the first entry; reuse it with reset() to iterate again without allocating. */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Allocation-free cursor: {@code for (c.reset(); c.advance(); ) use(c.key(), c.value());}.
+     * remove() drops the current entry and keeps the position. The table must not be changed other than
+     * through the cursor while it is in use; a shrink owed to cursor removals happens once it runs off the end.
+     */
+    public final class Cursor {
+        private int index;          // bucket of cur, -1 before the first
+        private Node cur;           // current chain or tree node; null before the first and after remove()
+        private boolean inTree;     // cur's bucket was a TreeBin
+        private boolean removed;    // remove() was called on the current entry
+        private long removedBits;   // key of the removed entry, for the tree successor
+        private int removedHash;
+        private Node removedNext;   // chain successor, saved before the node could be recycled
+        private boolean done;
+
+        private Cursor() {
+            reset();
+        }
+
+        /** Back to before the first entry; completes a pending incremental resize so one array holds everything. */
+        public void reset() {
+            finishTransfer();
+            index = -1;
+            cur = null;
+            removed = false;
+            done = false;
+        }
+
+        /** Moves to the next entry; false (and stays false until reset) once every entry has been visited. */
+        public boolean advance() {
+            if (done) return false;
+            Node[] tab = buckets;
+            if (index >= 0 && (cur != null || removed)) {
+                Node next = successor(tab[index]);
+                removed = false;
+                if (next != null) {
+                    cur = next;
+                    inTree = tab[index] instanceof TreeBin;
+                    return true;
+                }
+            }
+            removed = false;
+            while (++index < tab.length) {
+                Node head = tab[index];
+                if (head == null) continue;
+                inTree = head instanceof TreeBin;
+                cur = inTree ? ((TreeBin) head).first() : head;
+                return true;
+            }
+            cur = null;
+            done = true;
+            while (size < shrinkThreshold && buckets.length > minCapacity) shrink();
+            return false;
+        }
+
+        private Node successor(Node head) {
+            if (!inTree) return removed ? removedNext : cur.next;
+            int h = removed ? removedHash : cur.hash32;
+            long bits = removed ? removedBits : cur.keyBits;
+            if (head instanceof TreeBin) return ((TreeBin) head).higher(h, bits);
+            // the removal turned the bin back into a chain, which toChain leaves in tree order
+            for (Node c = head; c != null; c = c.next) {
+                if (TreeBin.compare(h, bits, c) < 0) return c;
+            }
+            return null;
+        }
+
+        public double key() {
+            return current().key;
+        }
+
+        public int value() {
+            return current().value;
+        }
+
+        /** Overwrites the current entry's value. */
+        public void setValue(int value) {
+            Node e = current();
+            if (hotKeys != null) hotRefresh(e.keyBits, e.hash32, value);
+            e.value = value;
+        }
+
+        /**
+         * Removes the current entry; advance() then moves to the entry after it.
+         * @throws IllegalStateException if there is no current entry (before advance, after remove or the end)
+         */
+        public void remove() {
+            Node e = current();
+            removedBits = e.keyBits;
+            removedHash = e.hash32;
+            removedNext = e.next;
+            if (hotKeys != null) hotInvalidate(removedBits, removedHash);
+            removeFromBucket(buckets, index, removedBits, removedHash);
+            if (bloom != null) bloomRemoved();
+            size--;
+            cur = null;
+            removed = true;
+        }
+
+        private Node current() {
+            if (cur == null) throw new IllegalStateException("no current entry");
+            return cur;
+        }
+    }
+
+    // ===== Spliterators and streams =====
+
+    /**
+     * Keys split by bucket ranges. Like the cursor it completes a pending incremental resize first, and the
+     * table must not be modified while the spliterator (or a stream over it) is in use. Not DISTINCT: keys
+     * are unique by raw bits, but NaNs with different payloads are equal as boxed Doubles.
+     */
+    public Spliterator.OfDouble keySpliterator() {
+        finishTransfer();
+        return new KeySpliterator(0, buckets.length, size, true);
+    }
+
+    /** Values, in the same bucket-range order as keySpliterator (see there). */
+    public Spliterator.OfInt valueSpliterator() {
+        finishTransfer();
+        return new ValueSpliterator(0, buckets.length, size, true);
+    }
+
+    /** Sequential stream of the keys; call parallel() to split it across the common pool. */
+    public DoubleStream keyStream() {
+        return StreamSupport.doubleStream(keySpliterator(), false);
+    }
+
+    public IntStream valueStream() {
+        return StreamSupport.intStream(valueSpliterator(), false);
+    }
+
+    /** Sum of all values as a long, reduced in parallel. */
+    public long sumValues() {
+        return valueStream().parallel().asLongStream().sum();
+    }
+
+    /** Keys matching the predicate, counted in parallel; the predicate must be safe to call from several threads. */
+    public long countMatching(DoublePredicate predicate) {
+        return keyStream().parallel().filter(predicate).count();
+    }
+
+    /**
+     * Walks buckets [index, fence). A split hands the lower half of the remaining range to the new
+     * spliterator; each half estimates its size as its share of the parent's, and only an unsplit root is
+     * SIZED. A tree bucket is walked by successor search, as in Cursor.
+     */
+    private abstract class BucketSpliterator {
+        int index;         // next bucket to open
+        final int fence;
+        long est;
+        boolean exact;
+        Node next;         // next node to report from bucket index - 1
+        boolean inTree;
+
+        BucketSpliterator(int index, int fence, long est, boolean exact) {
+            this.index = index;
+            this.fence = fence;
+            this.est = est;
+            this.exact = exact;
+        }
+
+        /** The next node, or null when the range is exhausted. */
+        final Node nextNode() {
+            Node[] tab = buckets;
+            Node e = next;
+            while (e == null && index < fence) {
+                Node head = tab[index++];
+                if (head == null) continue;
+                inTree = head instanceof TreeBin;
+                e = inTree ? ((TreeBin) head).first() : head;
+            }
+            if (e == null) return null;
+            next = inTree ? ((TreeBin) tab[index - 1]).higher(e.hash32, e.keyBits) : e.next;
+            return e;
+        }
+
+        /**
+         * Gives up the lower half of the remaining buckets, [old index, new index), with its share of the
+         * estimate; false if too few buckets are left to split.
+         */
+        final boolean splitOff() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) return false;
+            est -= est * (mid - index) / (fence - index);
+            exact = false;
+            index = mid;
+            return true;
+        }
+
+        public long estimateSize() { return est; }
+    }
+
+    private final class KeySpliterator extends BucketSpliterator implements Spliterator.OfDouble {
+        KeySpliterator(int index, int fence, long est, boolean exact) {
+            super(index, fence, est, exact);
+        }
+
+        public boolean tryAdvance(DoubleConsumer action) {
+            Node e = nextNode();
+            if (e == null) return false;
+            action.accept(e.key);
+            return true;
+        }
+
+        public void forEachRemaining(DoubleConsumer action) {
+            for (Node e; (e = nextNode()) != null; ) action.accept(e.key);
+        }
+
+        public Spliterator.OfDouble trySplit() {
+            int lo = index;
+            long before = est;
+            return splitOff() ? new KeySpliterator(lo, index, before - est, false) : null;
+        }
+
+        public int characteristics() {
+            return Spliterator.NONNULL | (exact ? Spliterator.SIZED : 0);
+        }
+    }
+
+    private final class ValueSpliterator extends BucketSpliterator implements Spliterator.OfInt {
+        ValueSpliterator(int index, int fence, long est, boolean exact) {
+            super(index, fence, est, exact);
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            Node e = nextNode();
+            if (e == null) return false;
+            action.accept(e.value);
+            return true;
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            for (Node e; (e = nextNode()) != null; ) action.accept(e.value);
+        }
+
+        public Spliterator.OfInt trySplit() {
+            int lo = index;
+            long before = est;
+            return splitOff() ? new ValueSpliterator(lo, index, before - est, false) : null;
+        }
+
+        public int characteristics() {
+            return Spliterator.NONNULL | (exact ? Spliterator.SIZED : 0);
+        }
+    }
+
+    // ===== Hooks for AdaptiveHashTable =====
+
+    /** Nodes inspected by a lookup of key, hit or miss (at least 1, an empty bucket costs one load too). */
+    int probeLength(double key) {
+        if (oldBuckets != null) migrate(MIGRATION_STEP);
+        long bits = Double.doubleToRawLongBits(key);
+        int h = hash(bits);
+        Node[] tab = tableFor(h);
+        Node head = tab[h & (tab.length - 1)];
+        if (head instanceof TreeBin) return Math.max(1, ((TreeBin) head).pathLength(h, bits));
+        int n = 0;
+        for (Node cur = head; cur != null; cur = cur.next) {
+            n++;
+            if (cur.keyBits == bits) break;
+        }
+        return Math.max(1, n);
     }
 
+    /**
+     * A tree bucket counts its entries as its chain length; treeBins is the number of such buckets, pooledNodes
+     * the free list and resizeLoadFactor the (possibly auto-tuned) load factor that triggers the next resize.
+     */
     public String stats() {
-        int maxChain = 0, totalChain = 0, nonEmpty = 0;
-        for (Node head : buckets) {
-            if (head != null) {
-                nonEmpty++;
-                int len = 0;
-                for (Node c = head; c != null; c = c.next) len++;
-                totalChain += len;
-                if (len > maxChain) maxChain = len;
+        int maxChain = 0, totalChain = 0, nonEmpty = 0, treeBins = 0;
+        Node[][] tabs = {buckets, oldBuckets};
+        for (Node[] tab : tabs) {
+            if (tab == null) continue;
+            for (int i = tab == oldBuckets ? transferIndex : 0; i < tab.length; i++) {
+                Node head = tab[i];
+                if (head != null) {
+                    nonEmpty++;
+                    if (head instanceof TreeBin) treeBins++;
+                    int len = chainLength(head);
+                    totalChain += len;
+                    if (len > maxChain) maxChain = len;
+                }
             }
         }
         double lf = size / (double) buckets.length;
         double mean = nonEmpty > 0 ? totalChain / (double) nonEmpty : 0.0;
-        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f",
-                buckets.length, size, lf, maxChain, mean);
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f, treeBins=%d, pooledNodes=%d, resizeLoadFactor=%.3f, mixer=%s, bloomRejects=%d, hotHitRate=%.3f",
+                buckets.length, size, lf, maxChain, mean, treeBins, pooledNodes, loadFactor, getMixer(), bloomRejects,
+                getHotCacheHitRate());
     }
 }
@@ -0,0 +1,228 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class OffHeapHashTable implements DoubleIntTable, AutoCloseable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+    private static final int MAX_CAPACITY = 1 << 26;        // 16-byte slots: 1 GB, the largest power of two an int-indexed buffer holds
+
+    // Slot layout (16 bytes, native order): raw key bits | value | cached mix32 hash
+    private static final int SLOT_BYTES = 16;
+    private static final int VALUE_OFFSET = 8;
+    private static final int HASH_OFFSET = 12;
+
+    /*
+     * Linear probing in a direct (off-heap) buffer, so the GC sees one small buffer object instead of
+     * one Node per entry. Raw bits 0L (+0.0) marks a free slot and the +0.0 key lives in a side slot.
+     * Removal shifts the following run back (no tombstones); resize rehashes buffer-to-buffer using the
+     * cached hashes. close() drops the buffer; Java 8 has no public API to free direct memory eagerly,
+     * so the native block is returned when the buffer object is collected.
+     */
+    private ByteBuffer slots;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private int size;
+    private int capacity;
+    private int mask;
+    private final double loadFactor;
+    private int threshold;
+    private final int maxCapacity; // MAX_CAPACITY except in tests, which reach "full" with small buffers
+
+    public OffHeapHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public OffHeapHashTable(int initialCapacity, double loadFactor) {
+        this(initialCapacity, loadFactor, MAX_CAPACITY);
+    }
+
+    /** Table that stops growing at maxCapacity slots (a power of two, 2..MAX_CAPACITY). */
+    OffHeapHashTable(int initialCapacity, double loadFactor, int maxCapacity) {
+        if (maxCapacity < 2 || maxCapacity > MAX_CAPACITY || Integer.bitCount(maxCapacity) != 1)
+            throw new IllegalArgumentException("maxCapacity must be a power of two in [2, " + MAX_CAPACITY + "]: " + maxCapacity);
+        if (initialCapacity < 2) initialCapacity = 2;
+        int cap = 1;
+        while (cap < initialCapacity && cap < maxCapacity) cap <<= 1;
+
+        this.maxCapacity = maxCapacity;
+
+        this.loadFactor = loadFactor <= 0 || loadFactor >= 1 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.slots = allocate(cap);
+        setCapacity(cap);
+        this.size = 0;
+    }
+
+    private static ByteBuffer allocate(int cap) {
+        // allocateDirect zero-fills, so every slot starts free
+        return ByteBuffer.allocateDirect(bufferBytes(cap)).order(ByteOrder.nativeOrder());
+    }
+
+    /** Buffer size for cap slots, computed in long: a ByteBuffer is int-indexed, so past 2^31 - 1 bytes is refused. */
+    private static int bufferBytes(int cap) {
+        long bytes = (long) cap * SLOT_BYTES;
+        if (bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("capacity too large for one buffer: " + cap);
+        return (int) bytes;
+    }
+
+    private void setCapacity(int cap) {
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.threshold = Math.min(cap - 1, (int) (cap * loadFactor));
+    }
+
+    public int size() { return size; }
+    public int capacity() { return capacity; }
+
+    /** Native bytes held by the slot buffer. */
+    public long offHeapBytes() { return slots == null ? 0 : (long) capacity * SLOT_BYTES; }
+
+    /** Releases the slot buffer; any further operation throws IllegalStateException. */
+    public void close() {
+        slots = null;
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    private ByteBuffer buffer() {
+        ByteBuffer b = slots;
+        if (b == null) throw new IllegalStateException("OffHeapHashTable is closed");
+        return b;
+    }
+
+    public void put(double key, int value) {
+        ByteBuffer b = buffer();
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return;
+        }
+        int h = MyHashTable.mix32(bits);
+        int i = h & mask;
+        for (long k; (k = b.getLong(i * SLOT_BYTES)) != 0L; i = (i + 1) & mask) {
+            if (k == bits) {
+                b.putInt(i * SLOT_BYTES + VALUE_OFFSET, value);
+                return;
+            }
+        }
+        if (size >= threshold && capacity == maxCapacity) throw new IllegalStateException("OffHeapHashTable is full");
+        int off = i * SLOT_BYTES;
+        b.putLong(off, bits);
+        b.putInt(off + VALUE_OFFSET, value);
+        b.putInt(off + HASH_OFFSET, h);
+        if (++size > threshold && capacity < maxCapacity) resize();
+    }
+
+    private int indexOf(ByteBuffer b, long bits) {
+        int i = MyHashTable.mix32(bits) & mask;
+        for (long k; (k = b.getLong(i * SLOT_BYTES)) != 0L; i = (i + 1) & mask) {
+            if (k == bits) return i;
+        }
+        return -1;
+    }
+
+    public Integer get(double key) {
+        ByteBuffer b = buffer();
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : null;
+        int i = indexOf(b, bits);
+        return i < 0 ? null : b.getInt(i * SLOT_BYTES + VALUE_OFFSET);
+    }
+
+    public int getInt(double key, int missingValue) {
+        ByteBuffer b = buffer();
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : missingValue;
+        int i = indexOf(b, bits);
+        return i < 0 ? missingValue : b.getInt(i * SLOT_BYTES + VALUE_OFFSET);
+    }
+
+    public boolean containsKey(double key) {
+        ByteBuffer b = buffer();
+        long bits = Double.doubleToRawLongBits(key);
+        return bits == 0L ? hasZeroKey : indexOf(b, bits) >= 0;
+    }
+
+    public boolean remove(double key) {
+        ByteBuffer b = buffer();
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int i = indexOf(b, bits);
+        if (i < 0) return false;
+        shiftKeys(b, i);
+        size--;
+        return true;
+    }
+
+    /** Backward-shift deletion, as in OpenAddressingHashTable but reading the cached hash from the slot. */
+    private void shiftKeys(ByteBuffer b, int pos) {
+        int last;
+        long k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = b.getLong(pos * SLOT_BYTES)) == 0L) {
+                    b.putLong(last * SLOT_BYTES, 0L);
+                    return;
+                }
+                int home = b.getInt(pos * SLOT_BYTES + HASH_OFFSET) & mask;
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            int dst = last * SLOT_BYTES, src = pos * SLOT_BYTES;
+            b.putLong(dst, k);
+            b.putInt(dst + VALUE_OFFSET, b.getInt(src + VALUE_OFFSET));
+            b.putInt(dst + HASH_OFFSET, b.getInt(src + HASH_OFFSET));
+        }
+    }
+
+    /** Double capacity and rehash old buffer into a new one with the cached hashes. */
+    private void resize() {
+        ByteBuffer old = this.slots;
+        int oldCap = this.capacity;
+        int newCap = oldCap << 1;
+        ByteBuffer neo = allocate(newCap);
+        int newMask = newCap - 1;
+
+        for (int j = 0; j < oldCap; j++) {
+            int src = j * SLOT_BYTES;
+            long k = old.getLong(src);
+            if (k == 0L) continue;
+            int h = old.getInt(src + HASH_OFFSET);
+            int i = h & newMask;
+            while (neo.getLong(i * SLOT_BYTES) != 0L) i = (i + 1) & newMask;
+            int dst = i * SLOT_BYTES;
+            neo.putLong(dst, k);
+            neo.putInt(dst + VALUE_OFFSET, old.getInt(src + VALUE_OFFSET));
+            neo.putInt(dst + HASH_OFFSET, h);
+        }
+        this.slots = neo;
+        setCapacity(newCap);
+    }
+
+    /** Chain length here is the probe length (distance from home slot + 1) of each stored entry. */
+    public String stats() {
+        ByteBuffer b = buffer();
+        int maxProbe = 0, entries = 0;
+        long totalProbe = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (b.getLong(i * SLOT_BYTES) == 0L) continue;
+            int probe = ((i - (b.getInt(i * SLOT_BYTES + HASH_OFFSET) & mask)) & mask) + 1;
+            entries++;
+            totalProbe += probe;
+            if (probe > maxProbe) maxProbe = probe;
+        }
+        double lf = size / (double) capacity;
+        double mean = entries > 0 ? totalProbe / (double) entries : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f, offHeapBytes=%d",
+                capacity, size, lf, maxProbe, mean, offHeapBytes());
+    }
+}
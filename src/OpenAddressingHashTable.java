@@ -0,0 +1,192 @@
+public class OpenAddressingHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+
+    /*
+     * Linear probing over parallel primitive arrays: keys[] holds raw IEEE-754 bits, values[] the ints.
+     * Raw bits 0L (+0.0) marks a free slot, so the +0.0 key itself lives in a side slot (hasZeroKey/zeroValue).
+     * Removal shifts the following run back (no tombstones), so no per-entry objects are ever allocated.
+     */
+    private long[] keys;
+    private int[] values;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private int size;
+    private int mask;
+    private final double loadFactor;
+    private int threshold;
+
+    public OpenAddressingHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public OpenAddressingHashTable(int initialCapacity, double loadFactor) {
+        if (initialCapacity < 2) initialCapacity = 2;
+        int cap = 1;
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.loadFactor = loadFactor <= 0 || loadFactor >= 1 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.keys = new long[cap];
+        this.values = new int[cap];
+        this.mask = cap - 1;
+        this.threshold = Math.min(cap - 1, (int) (cap * this.loadFactor));
+        this.size = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return keys.length; }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return;
+        }
+        int i = MyHashTable.mix32(bits) & mask;
+        for (long k; (k = keys[i]) != 0L; i = (i + 1) & mask) {
+            if (k == bits) {
+                values[i] = value;
+                return;
+            }
+        }
+        keys[i] = bits;
+        values[i] = value;
+        if (++size > threshold) resize();
+    }
+
+    public Integer get(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : null;
+
+        int i = MyHashTable.mix32(bits) & mask;
+        for (long k; (k = keys[i]) != 0L; i = (i + 1) & mask) {
+            if (k == bits) return values[i];
+        }
+        return null;
+    }
+
+    public int getInt(double key, int missingValue) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : missingValue;
+
+        int i = MyHashTable.mix32(bits) & mask;
+        for (long k; (k = keys[i]) != 0L; i = (i + 1) & mask) {
+            if (k == bits) return values[i];
+        }
+        return missingValue;
+    }
+
+    public boolean containsKey(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey;
+
+        int i = MyHashTable.mix32(bits) & mask;
+        for (long k; (k = keys[i]) != 0L; i = (i + 1) & mask) {
+            if (k == bits) return true;
+        }
+        return false;
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int i = MyHashTable.mix32(bits) & mask;
+        for (long k; (k = keys[i]) != 0L; i = (i + 1) & mask) {
+            if (k == bits) {
+                shiftKeys(i);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Backward-shift deletion: pull later entries of the run into the hole unless that would move them before their home slot. */
+    private void shiftKeys(int pos) {
+        int last;
+        long k;
+        for (;;) {
+            pos = ((last = pos) + 1) & mask;
+            for (;;) {
+                if ((k = keys[pos]) == 0L) {
+                    keys[last] = 0L;
+                    return;
+                }
+                int home = MyHashTable.mix32(k) & mask;
+                // entry at pos may move to last only if its home is not in the cyclic range (last, pos]
+                if (last <= pos ? last >= home || home > pos : last >= home && home > pos) break;
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    /** Double capacity and reinsert; keys carry no cached hash so mix32 is recomputed. */
+    private void resize() {
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        int newCap = oldKeys.length << 1;
+        long[] nk = new long[newCap];
+        int[] nv = new int[newCap];
+        int newMask = newCap - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == 0L) continue;
+            int i = MyHashTable.mix32(k) & newMask;
+            while (nk[i] != 0L) i = (i + 1) & newMask;
+            nk[i] = k;
+            nv[i] = oldValues[j];
+        }
+        this.keys = nk;
+        this.values = nv;
+        this.mask = newMask;
+        this.threshold = Math.min(newCap - 1, (int) (newCap * loadFactor));
+    }
+
+    // ===== Hooks for AdaptiveHashTable =====
+
+    /** Slots inspected by a lookup of key, hit or miss (the side slot counts as one). */
+    int probeLength(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return 1;
+        int n = 1;
+        for (int i = MyHashTable.mix32(bits) & mask; keys[i] != 0L && keys[i] != bits; i = (i + 1) & mask) n++;
+        return n;
+    }
+
+    void forEachEntry(DoubleIntConsumer action) {
+        if (hasZeroKey) action.accept(0.0, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) action.accept(Double.longBitsToDouble(keys[i]), values[i]);
+        }
+    }
+
+    /** Chain length here is the probe length (distance from home slot + 1) of each stored entry. */
+    public String stats() {
+        int maxProbe = 0, entries = 0;
+        long totalProbe = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long k = keys[i];
+            if (k == 0L) continue;
+            int probe = ((i - (MyHashTable.mix32(k) & mask)) & mask) + 1;
+            entries++;
+            totalProbe += probe;
+            if (probe > maxProbe) maxProbe = probe;
+        }
+        double lf = size / (double) keys.length;
+        double mean = entries > 0 ? totalProbe / (double) entries : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f",
+                keys.length, size, lf, maxProbe, mean);
+    }
+}
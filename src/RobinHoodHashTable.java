@@ -0,0 +1,216 @@
+public class RobinHoodHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+
+    /*
+     * Robin Hood linear probing: an inserting key displaces any resident that is closer to its home slot,
+     * which keeps probe lengths tightly grouped. Slots are parallel arrays (raw key bits, cached mix32
+     * hash for probe distances, value); raw bits 0L (+0.0) marks a free slot and +0.0 lives in a side slot.
+     * Removal shifts the following run back by one until an empty or home-positioned entry (no tombstones).
+     */
+    private long[] keys;
+    private int[] hashes;
+    private int[] values;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    private int size;
+    private int mask;
+    private final double loadFactor;
+    private int threshold;
+
+    public RobinHoodHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public RobinHoodHashTable(int initialCapacity, double loadFactor) {
+        if (initialCapacity < 2) initialCapacity = 2;
+        int cap = 1;
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.loadFactor = loadFactor <= 0 || loadFactor >= 1 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.keys = new long[cap];
+        this.hashes = new int[cap];
+        this.values = new int[cap];
+        this.mask = cap - 1;
+        this.threshold = Math.min(cap - 1, (int) (cap * this.loadFactor));
+        this.size = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return keys.length; }
+
+    /** Distance of slot i from the home slot of the entry stored there. */
+    private int probeDistance(int i) {
+        return (i - (hashes[i] & mask)) & mask;
+    }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return;
+        }
+        int h = MyHashTable.mix32(bits);
+        int i = h & mask;
+        for (int d = 0; ; i = (i + 1) & mask, d++) {
+            long k = keys[i];
+            if (k == 0L) {
+                keys[i] = bits;
+                hashes[i] = h;
+                values[i] = value;
+                break;
+            }
+            if (k == bits) { // only reachable before the first swap, by the Robin Hood invariant
+                values[i] = value;
+                return;
+            }
+            int kd = probeDistance(i);
+            if (kd < d) { // resident is richer: take its slot and carry it forward
+                int kh = hashes[i], kv = values[i];
+                keys[i] = bits;
+                hashes[i] = h;
+                values[i] = value;
+                bits = k;
+                h = kh;
+                value = kv;
+                d = kd;
+            }
+        }
+        if (++size > threshold) resize();
+    }
+
+    private int indexOf(long bits) {
+        int h = MyHashTable.mix32(bits);
+        int i = h & mask;
+        for (int d = 0; ; i = (i + 1) & mask, d++) {
+            long k = keys[i];
+            if (k == 0L || probeDistance(i) < d) return -1; // key would have displaced this resident
+            if (k == bits) return i;
+        }
+    }
+
+    public Integer get(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : null;
+        int i = indexOf(bits);
+        return i < 0 ? null : values[i];
+    }
+
+    public int getInt(double key, int missingValue) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return hasZeroKey ? zeroValue : missingValue;
+        int i = indexOf(bits);
+        return i < 0 ? missingValue : values[i];
+    }
+
+    public boolean containsKey(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        return bits == 0L ? hasZeroKey : indexOf(bits) >= 0;
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int i = indexOf(bits);
+        if (i < 0) return false;
+
+        // backward shift: pull successors one slot closer to home until an empty or home-positioned slot
+        for (int next = (i + 1) & mask; keys[next] != 0L && probeDistance(next) > 0; next = (next + 1) & mask) {
+            keys[i] = keys[next];
+            hashes[i] = hashes[next];
+            values[i] = values[next];
+            i = next;
+        }
+        keys[i] = 0L;
+        size--;
+        return true;
+    }
+
+    /** Double capacity; reinsert with the cached hashes (no mix32 recompute). */
+    private void resize() {
+        long[] oldKeys = this.keys;
+        int[] oldHashes = this.hashes;
+        int[] oldValues = this.values;
+        int newCap = oldKeys.length << 1;
+        this.keys = new long[newCap];
+        this.hashes = new int[newCap];
+        this.values = new int[newCap];
+        this.mask = newCap - 1;
+        this.threshold = Math.min(newCap - 1, (int) (newCap * loadFactor));
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0L) reinsert(oldKeys[j], oldHashes[j], oldValues[j]);
+        }
+    }
+
+    /** Robin Hood placement of a key known to be absent. */
+    private void reinsert(long bits, int h, int value) {
+        int i = h & mask;
+        for (int d = 0; ; i = (i + 1) & mask, d++) {
+            if (keys[i] == 0L) {
+                keys[i] = bits;
+                hashes[i] = h;
+                values[i] = value;
+                return;
+            }
+            int kd = probeDistance(i);
+            if (kd < d) {
+                long kb = keys[i];
+                int kh = hashes[i], kv = values[i];
+                keys[i] = bits;
+                hashes[i] = h;
+                values[i] = value;
+                bits = kb;
+                h = kh;
+                value = kv;
+                d = kd;
+            }
+        }
+    }
+
+    // ===== Hooks for AdaptiveHashTable =====
+
+    /** Slots inspected by a lookup of key, hit or miss, including the early exit (the side slot counts as one). */
+    int probeLength(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        if (bits == 0L) return 1;
+        int i = MyHashTable.mix32(bits) & mask;
+        for (int d = 0; ; i = (i + 1) & mask, d++) {
+            long k = keys[i];
+            if (k == 0L || k == bits || probeDistance(i) < d) return d + 1;
+        }
+    }
+
+    void forEachEntry(DoubleIntConsumer action) {
+        if (hasZeroKey) action.accept(0.0, zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) action.accept(Double.longBitsToDouble(keys[i]), values[i]);
+        }
+    }
+
+    /** Chain length here is the probe length (distance from home slot + 1) of each stored entry. */
+    public String stats() {
+        int maxProbe = 0, entries = 0;
+        long totalProbe = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == 0L) continue;
+            int probe = probeDistance(i) + 1;
+            entries++;
+            totalProbe += probe;
+            if (probe > maxProbe) maxProbe = probe;
+        }
+        double lf = size / (double) keys.length;
+        double mean = entries > 0 ? totalProbe / (double) entries : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f",
+                keys.length, size, lf, maxProbe, mean);
+    }
+}
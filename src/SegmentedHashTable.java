@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+public class SegmentedHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // rounded up to whole chunks
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;  // buckets per chunk (16 KB of references)
+
+    /** Chain node with the full 64-bit hash, so bucket indexes may use more than 32 bits. */
+    private static final class Node {
+        final long keyBits;
+        final long hash;
+        int value;
+        Node next;
+
+        Node(long keyBits, long hash, int value, Node next) {
+            this.keyBits = keyBits;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Separate chaining over a directory of fixed-size bucket chunks: bucket b lives in
+     * chunks[b >>> CHUNK_BITS][b & (CHUNK_SIZE - 1)], so the high bits of the index pick the chunk and no
+     * allocation is ever larger than one chunk (or the small directory). Growth is linear hashing by
+     * chunk: with base = baseChunks * CHUNK_SIZE buckets a hash h maps to h mod base, or to h mod 2*base once
+     * its chunk has been split (chunk index < splitChunk). Passing the threshold appends one chunk and
+     * splits chunk splitChunk into it; after the last chunk of the round, base doubles. Hashes are the
+     * 64-bit mix64 and size is a long, so neither 2^30 buckets nor 2^31 entries is a limit (the directory
+     * stops growing at 2^30 chunks).
+     */
+    private Node[][] chunks;
+    private int chunkCount;   // chunks in use: baseChunks + splitChunk
+    private int baseChunks;   // power of two
+    private int splitChunk;   // next chunk to split in this round
+    private long size;
+    private final double loadFactor;
+    private long threshold;
+
+    public SegmentedHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public SegmentedHashTable(int initialCapacity, double loadFactor) {
+        int initialChunks = 1;
+        while ((long) initialChunks * CHUNK_SIZE < initialCapacity) initialChunks <<= 1;
+
+        this.loadFactor = loadFactor <= 0 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        this.chunks = new Node[initialChunks][];
+        for (int c = 0; c < initialChunks; c++) chunks[c] = new Node[CHUNK_SIZE];
+        this.chunkCount = initialChunks;
+        this.baseChunks = initialChunks;
+        this.splitChunk = 0;
+        this.threshold = (long) (bucketCount() * this.loadFactor);
+        this.size = 0;
+    }
+
+    /** Entries held, clamped to Integer.MAX_VALUE (see longSize). */
+    public int size() { return (int) Math.min(size, Integer.MAX_VALUE); }
+    /** Buckets, clamped to Integer.MAX_VALUE (see bucketCount). */
+    public int capacity() { return (int) Math.min(bucketCount(), Integer.MAX_VALUE); }
+
+    public long longSize() { return size; }
+    public long bucketCount() { return (long) chunkCount << CHUNK_BITS; }
+
+    private long bucketOf(long h) {
+        long base = (long) baseChunks << CHUNK_BITS;
+        long b = h & (base - 1);
+        if ((b >>> CHUNK_BITS) < splitChunk) b = h & ((base << 1) - 1);
+        return b;
+    }
+
+    private Node findNode(long bits) {
+        long b = bucketOf(MyHashTable.mix64(bits));
+        for (Node e = chunks[(int) (b >>> CHUNK_BITS)][(int) b & (CHUNK_SIZE - 1)]; e != null; e = e.next) {
+            if (e.keyBits == bits) return e;
+        }
+        return null;
+    }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        long h = MyHashTable.mix64(bits);
+        long b = bucketOf(h);
+        Node[] chunk = chunks[(int) (b >>> CHUNK_BITS)];
+        int i = (int) b & (CHUNK_SIZE - 1);
+        for (Node e = chunk[i]; e != null; e = e.next) {
+            if (e.keyBits == bits) {
+                e.value = value;
+                return;
+            }
+        }
+        chunk[i] = new Node(bits, h, value, chunk[i]);
+        if (++size > threshold) splitNext();
+    }
+
+    public Integer get(double key) {
+        Node e = findNode(Double.doubleToRawLongBits(key));
+        return e == null ? null : e.value;
+    }
+
+    public int getInt(double key, int missingValue) {
+        Node e = findNode(Double.doubleToRawLongBits(key));
+        return e == null ? missingValue : e.value;
+    }
+
+    public boolean containsKey(double key) {
+        return findNode(Double.doubleToRawLongBits(key)) != null;
+    }
+
+    /** Removes without shrinking; the chunks stay allocated. */
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        long b = bucketOf(MyHashTable.mix64(bits));
+        Node[] chunk = chunks[(int) (b >>> CHUNK_BITS)];
+        int i = (int) b & (CHUNK_SIZE - 1);
+        Node prev = null;
+        for (Node e = chunk[i]; e != null; prev = e, e = e.next) {
+            if (e.keyBits == bits) {
+                if (prev == null) chunk[i] = e.next;
+                else prev.next = e.next;
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Appends one chunk and moves into it the entries of chunk splitChunk whose next hash bit is set. */
+    private void splitNext() {
+        if (chunkCount == 1 << 30) return; // 2^42 buckets: chains just get longer
+        if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunks.length << 1);
+        long base = (long) baseChunks << CHUNK_BITS;
+        Node[] src = chunks[splitChunk];
+        Node[] dst = new Node[CHUNK_SIZE];
+        chunks[chunkCount++] = dst; // index splitChunk + baseChunks: bucket b moves to b + base, same offset
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            Node lo = null, hi = null;
+            for (Node e = src[i], next; e != null; e = next) {
+                next = e.next;
+                if ((e.hash & base) == 0) {
+                    e.next = lo;
+                    lo = e;
+                } else {
+                    e.next = hi;
+                    hi = e;
+                }
+            }
+            src[i] = lo;
+            dst[i] = hi;
+        }
+        if (++splitChunk == baseChunks) {
+            baseChunks <<= 1;
+            splitChunk = 0;
+        }
+        threshold = (long) (bucketCount() * loadFactor);
+    }
+
+    public String stats() {
+        int maxChain = 0;
+        long totalChain = 0, nonEmpty = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            for (Node head : chunks[c]) {
+                if (head == null) continue;
+                nonEmpty++;
+                int len = 0;
+                for (Node e = head; e != null; e = e.next) len++;
+                totalChain += len;
+                if (len > maxChain) maxChain = len;
+            }
+        }
+        double lf = size / (double) bucketCount();
+        double mean = nonEmpty > 0 ? totalChain / (double) nonEmpty : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f, chunks=%d, splitChunk=%d",
+                bucketCount(), size, lf, maxChain, mean, chunkCount, splitChunk);
+    }
+}
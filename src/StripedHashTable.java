@@ -0,0 +1,240 @@
+import java.util.concurrent.locks.ReentrantLock;
+
+public class StripedHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.75;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two
+    private static final int DEFAULT_STRIPES = 64;          // power of two
+
+    /** Separate chaining node with precomputed 32-bit hash (same layout as MyHashTable's). */
+    private static class Node {
+        final long keyBits;
+        final int hash32;
+        int value;
+        Node next;
+
+        Node(long keyBits, int hash32, int value, Node next) {
+            this.keyBits = keyBits;
+            this.hash32 = hash32;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Thread-safe chaining table. Buckets are indexed by the UPPER bits of mix32 (h >>> shift) and the
+     * stripe lock by the top stripeBits of the same hash, so each lock owns a contiguous group of buckets
+     * and two threads holding different stripes never touch the same chain. Resize takes every stripe
+     * (in index order) and splits bucket i into 2i and 2i+1; since operations read the bucket array only
+     * while holding their stripe, they always see a stable table.
+     */
+    private volatile Node[] buckets;
+    private volatile int shift;           // 32 - log2(buckets.length)
+    private final ReentrantLock[] locks;
+    private final int[] counts;           // per-stripe sizes, guarded by the stripe lock
+    private final int stripeShift;        // 32 - log2(stripes)
+    private final double loadFactor;
+    private volatile int threshold;
+    private volatile int stripeThreshold; // per-stripe share of threshold; exceeding it triggers a size check
+
+    public StripedHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_STRIPES);
+    }
+
+    public StripedHashTable(int initialCapacity, double loadFactor, int stripes) {
+        int s = 2;
+        while (s < stripes) s <<= 1;
+        int cap = s;                          // at least one bucket per stripe
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.locks = new ReentrantLock[s];
+        for (int i = 0; i < s; i++) locks[i] = new ReentrantLock();
+        this.counts = new int[s];
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(s);
+        this.loadFactor = loadFactor <= 0 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        setTable(new Node[cap]);
+    }
+
+    private void setTable(Node[] tab) {
+        this.shift = 32 - Integer.numberOfTrailingZeros(tab.length);
+        this.threshold = (int) (tab.length * loadFactor);
+        this.stripeThreshold = Math.max(1, threshold / locks.length);
+        this.buckets = tab;
+    }
+
+    public int size() {
+        long total = 0;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                total += counts[i];
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return (int) total;
+    }
+
+    public int capacity() { return buckets.length; }
+
+    public int stripes() { return locks.length; }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        int stripe = h >>> stripeShift;
+        ReentrantLock lock = locks[stripe];
+        boolean grow = false;
+        Node[] tab;
+        lock.lock();
+        try {
+            tab = buckets;
+            int index = h >>> shift;
+            for (Node cur = tab[index]; cur != null; cur = cur.next) {
+                if (cur.keyBits == bits) {
+                    cur.value = value;
+                    return;
+                }
+            }
+            tab[index] = new Node(bits, h, value, tab[index]);
+            grow = ++counts[stripe] > stripeThreshold;
+        } finally {
+            lock.unlock();
+        }
+        if (grow && approximateSize() > threshold) resize(tab);
+    }
+
+    /** Unlocked sum of the stripe counts; may be stale, only used to decide whether to try a resize. */
+    private long approximateSize() {
+        long total = 0;
+        for (int c : counts) total += c;
+        return total;
+    }
+
+    public Integer get(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        ReentrantLock lock = locks[h >>> stripeShift];
+        lock.lock();
+        try {
+            for (Node cur = buckets[h >>> shift]; cur != null; cur = cur.next) {
+                if (cur.keyBits == bits) return cur.value;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInt(double key, int missingValue) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        ReentrantLock lock = locks[h >>> stripeShift];
+        lock.lock();
+        try {
+            for (Node cur = buckets[h >>> shift]; cur != null; cur = cur.next) {
+                if (cur.keyBits == bits) return cur.value;
+            }
+            return missingValue;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean containsKey(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        ReentrantLock lock = locks[h >>> stripeShift];
+        lock.lock();
+        try {
+            for (Node cur = buckets[h >>> shift]; cur != null; cur = cur.next) {
+                if (cur.keyBits == bits) return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        int stripe = h >>> stripeShift;
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            Node[] tab = buckets;
+            int index = h >>> shift;
+            Node cur = tab[index], prev = null;
+            while (cur != null) {
+                if (cur.keyBits == bits) {
+                    if (prev == null) tab[index] = cur.next;
+                    else prev.next = cur.next;
+                    counts[stripe]--;
+                    return true;
+                }
+                prev = cur;
+                cur = cur.next;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock l : locks) l.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) locks[i].unlock();
+    }
+
+    /** Double capacity under all stripes; bucket i splits into 2i (next hash bit 0) and 2i+1 (bit 1). */
+    private void resize(Node[] seen) {
+        lockAll();
+        try {
+            Node[] old = buckets;
+            if (old != seen || approximateSize() <= threshold) return; // another thread already grew it
+
+            Node[] neo = new Node[old.length << 1];
+            int newShift = shift - 1;
+            for (Node head : old) {
+                Node cur = head;
+                while (cur != null) {
+                    Node nxt = cur.next;
+                    int idx = cur.hash32 >>> newShift;
+                    cur.next = neo[idx];
+                    neo[idx] = cur;
+                    cur = nxt;
+                }
+            }
+            setTable(neo);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    public String stats() {
+        lockAll();
+        try {
+            Node[] tab = buckets;
+            int maxChain = 0, totalChain = 0, nonEmpty = 0, size = 0;
+            for (int c : counts) size += c;
+            for (Node head : tab) {
+                if (head != null) {
+                    nonEmpty++;
+                    int len = 0;
+                    for (Node c = head; c != null; c = c.next) len++;
+                    totalChain += len;
+                    if (len > maxChain) maxChain = len;
+                }
+            }
+            double lf = size / (double) tab.length;
+            double mean = nonEmpty > 0 ? totalChain / (double) nonEmpty : 0.0;
+            return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f, stripes=%d",
+                    tab.length, size, lf, maxChain, mean, locks.length);
+        } finally {
+            unlockAll();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+public class SwissHashTable implements DoubleIntTable {
+    private static final double DEFAULT_LOAD_FACTOR = 0.875;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16; // power of two, at least one group
+
+    /*
+     * SwissTable-style layout: slots come in groups of 8, and each group has one long of control bytes
+     * (byte j = slot j of the group). A control byte is EMPTY (0x80), DELETED (0xFE) or FULL with the
+     * low 7 bits of mix32 as a tag. Lookups compare all 8 tags of a group at once with SWAR bit tricks
+     * and only load keys[] for tag matches, so most misses never touch key bits. The upper hash bits
+     * choose the start group; groups are probed triangularly, which visits every group of a power-of-two table.
+     */
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+    private static final int EMPTY = 0x80;
+    private static final int DELETED = 0xFE;
+
+    private long[] ctrl;
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int deleted;
+    private int groupMask;
+    private final double loadFactor;
+    private int threshold;
+
+    public SwissHashTable() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public SwissHashTable(int initialCapacity, double loadFactor) {
+        if (initialCapacity < 8) initialCapacity = 8;
+        int cap = 8;
+        while (cap < initialCapacity) cap <<= 1;
+
+        this.loadFactor = loadFactor <= 0 || loadFactor >= 1 ? DEFAULT_LOAD_FACTOR : loadFactor;
+        allocate(cap);
+        this.size = 0;
+    }
+
+    private void allocate(int cap) {
+        this.ctrl = new long[cap >>> 3];
+        java.util.Arrays.fill(ctrl, MSB); // every byte EMPTY
+        this.keys = new long[cap];
+        this.values = new int[cap];
+        this.groupMask = (cap >>> 3) - 1;
+        this.threshold = Math.min(cap - 1, (int) (cap * loadFactor));
+        this.deleted = 0;
+    }
+
+    public int size() { return size; }
+    public int capacity() { return keys.length; }
+
+    // ===== SWAR helpers: each returns a mask with the high bit set in every matching byte =====
+
+    /** Bytes equal to tag (rare false positives only above a true match; keys are compared anyway). */
+    private static long matchTag(long word, int tag) {
+        long x = word ^ (LSB * tag);
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /** Bytes that are EMPTY (0x80): high bit set and bit 1 clear. */
+    private static long matchEmpty(long word) {
+        return word & (~word << 6) & MSB;
+    }
+
+    /** Bytes that are EMPTY or DELETED (high bit set). */
+    private static long matchFree(long word) {
+        return word & MSB;
+    }
+
+    private static int firstByte(long matchMask) {
+        return Long.numberOfTrailingZeros(matchMask) >>> 3;
+    }
+
+    private int ctrlAt(int slot) {
+        return (int) (ctrl[slot >>> 3] >>> ((slot & 7) << 3)) & 0xFF;
+    }
+
+    private void setCtrl(int slot, int c) {
+        int shift = (slot & 7) << 3;
+        int g = slot >>> 3;
+        ctrl[g] = (ctrl[g] & ~(0xFFL << shift)) | ((long) c << shift);
+    }
+
+    private int find(long bits, int h) {
+        int tag = h & 0x7F;
+        int g = (h >>> 7) & groupMask;
+        for (int step = 0; ; ) {
+            long w = ctrl[g];
+            for (long m = matchTag(w, tag); m != 0; m &= m - 1) {
+                int slot = (g << 3) + firstByte(m);
+                if (keys[slot] == bits) return slot;
+            }
+            if (matchEmpty(w) != 0) return -1; // an EMPTY byte ends the probe sequence
+            g = (g + ++step) & groupMask;
+        }
+    }
+
+    /** First EMPTY or DELETED slot on the probe sequence of h. */
+    private int findFree(int h) {
+        int g = (h >>> 7) & groupMask;
+        for (int step = 0; ; ) {
+            long m = matchFree(ctrl[g]);
+            if (m != 0) return (g << 3) + firstByte(m);
+            g = (g + ++step) & groupMask;
+        }
+    }
+
+    public void put(double key, int value) {
+        long bits = Double.doubleToRawLongBits(key);
+        int h = MyHashTable.mix32(bits);
+        int slot = find(bits, h);
+        if (slot >= 0) {
+            values[slot] = value;
+            return;
+        }
+        slot = findFree(h);
+        if (ctrlAt(slot) == DELETED) deleted--;
+        setCtrl(slot, h & 0x7F);
+        keys[slot] = bits;
+        values[slot] = value;
+        if (++size + deleted > threshold) rehash();
+    }
+
+    public Integer get(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int slot = find(bits, MyHashTable.mix32(bits));
+        return slot < 0 ? null : values[slot];
+    }
+
+    public int getInt(double key, int missingValue) {
+        long bits = Double.doubleToRawLongBits(key);
+        int slot = find(bits, MyHashTable.mix32(bits));
+        return slot < 0 ? missingValue : values[slot];
+    }
+
+    public boolean containsKey(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        return find(bits, MyHashTable.mix32(bits)) >= 0;
+    }
+
+    public boolean remove(double key) {
+        long bits = Double.doubleToRawLongBits(key);
+        int slot = find(bits, MyHashTable.mix32(bits));
+        if (slot < 0) return false;
+        // a group that still has an EMPTY byte never let a probe pass through, so no tombstone is needed
+        if (matchEmpty(ctrl[slot >>> 3]) != 0) {
+            setCtrl(slot, EMPTY);
+        } else {
+            setCtrl(slot, DELETED);
+            deleted++;
+        }
+        size--;
+        return true;
+    }
+
+    /** Doubles capacity when mostly live, otherwise rebuilds in place to purge tombstones. */
+    private void rehash() {
+        long[] oldCtrl = this.ctrl;
+        long[] oldKeys = this.keys;
+        int[] oldValues = this.values;
+        int newCap = size > threshold / 2 ? oldKeys.length << 1 : oldKeys.length;
+        allocate(newCap);
+
+        for (int g = 0; g < oldCtrl.length; g++) {
+            long w = oldCtrl[g];
+            for (long full = ~w & MSB; full != 0; full &= full - 1) {
+                int old = (g << 3) + firstByte(full);
+                long bits = oldKeys[old];
+                int h = MyHashTable.mix32(bits);
+                int slot = findFree(h);
+                setCtrl(slot, h & 0x7F);
+                keys[slot] = bits;
+                values[slot] = oldValues[old];
+            }
+        }
+    }
+
+    /** Chain length here is the number of groups probed to reach each stored entry. */
+    public String stats() {
+        int maxProbe = 0, entries = 0;
+        long totalProbe = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if ((ctrlAt(slot) & 0x80) != 0) continue;
+            int h = MyHashTable.mix32(keys[slot]);
+            int g = (h >>> 7) & groupMask, target = slot >>> 3, probe = 1;
+            for (int step = 0; g != target; probe++) g = (g + ++step) & groupMask;
+            entries++;
+            totalProbe += probe;
+            if (probe > maxProbe) maxProbe = probe;
+        }
+        double lf = size / (double) keys.length;
+        double mean = entries > 0 ? totalProbe / (double) entries : 0.0;
+        return String.format("M=%d, size=%d, loadFactor=%.3f, maxChainLength=%d, meanChainLength=%.3f",
+                keys.length, size, lf, maxProbe, mean);
+    }
+}
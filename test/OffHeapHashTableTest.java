@@ -0,0 +1,51 @@
+/** Plain-Java checks (no test framework on the classpath): run with "java OffHeapHashTableTest". */
+public class OffHeapHashTableTest {
+    public static void main(String[] args) {
+        growsToTheCapThenRefusesNewKeys();
+        initialCapacityIsClampedToTheCap();
+        capPastMaxCapacityIsRefused();
+        System.out.println("OffHeapHashTableTest OK");
+    }
+
+    /** Puts until "full": the table doubles up to its cap, then refuses new keys but still updates old ones. */
+    static void growsToTheCapThenRefusesNewKeys() {
+        OffHeapHashTable table = new OffHeapHashTable(2, 0.75, 16);
+        int inserted = 0;
+        try {
+            for (int i = 1; i <= 100; i++) {
+                table.put(i, i);
+                inserted = i;
+            }
+            throw new AssertionError("100 keys fit in a 16-slot table");
+        } catch (IllegalStateException expected) {
+            // the 16-slot table is full
+        }
+        check(table.capacity() == 16, "capacity stops at the cap, got " + table.capacity());
+        check(table.size() == 12 && inserted == 12, "full at the 0.75 threshold, size " + table.size());
+        for (int i = 1; i <= inserted; i++) check(table.getInt(i, -1) == i, "key " + i + " kept");
+        table.put(1, 42);
+        check(table.getInt(1, -1) == 42, "existing key still updatable when full");
+        table.close();
+    }
+
+    static void initialCapacityIsClampedToTheCap() {
+        OffHeapHashTable table = new OffHeapHashTable(1000, 0.75, 16);
+        check(table.capacity() == 16, "initial capacity clamped to the cap, got " + table.capacity());
+        check(table.offHeapBytes() == 16 * 16, "16 slots of 16 bytes, got " + table.offHeapBytes());
+        table.close();
+    }
+
+    /** 2^27 slots would need 2^31 bytes, past one int-indexed buffer: refused instead of overflowing. */
+    static void capPastMaxCapacityIsRefused() {
+        try {
+            new OffHeapHashTable(16, 0.75, 1 << 27);
+        } catch (IllegalArgumentException expected) {
+            return;
+        }
+        throw new AssertionError("a cap past MAX_CAPACITY was accepted");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+}